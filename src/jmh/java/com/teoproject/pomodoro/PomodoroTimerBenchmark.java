@@ -0,0 +1,48 @@
+package com.teoproject.pomodoro;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of one status notification, as sent on every timer tick, fanned out to N listeners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PomodoroTimerBenchmark {
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private PomodoroTimer timer;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        timer = new PomodoroTimer(25, 5, 4);
+        for (int i = 0; i < listenerCount; i++) {
+            timer.addListener(new PomodoroTimerListener() {
+                @Override
+                public void onStatusUpdate(PomodoroTimer.TimerStatus status) {
+                    blackhole.consume(status);
+                }
+
+                @Override
+                public void onSessionFinished(boolean completed) {
+                    blackhole.consume(completed);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void notifyStatusChanged() {
+        timer.notifyStatusChanged();
+    }
+}
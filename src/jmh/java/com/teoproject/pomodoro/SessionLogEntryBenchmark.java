@@ -0,0 +1,43 @@
+package com.teoproject.pomodoro;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of converting a single entry to and from its CSV row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionLogEntryBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private List<SessionLogEntry> entries;
+    private List<String> rows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        entries = SyntheticSessions.entries(SAMPLES, 42);
+        rows = SyntheticSessions.csvRows(SAMPLES, 42);
+    }
+
+    @Benchmark
+    public SessionLogEntry fromCsvRow() {
+        next = (next + 1) & (SAMPLES - 1);
+        return SessionLogEntry.fromCsvRow(rows.get(next));
+    }
+
+    @Benchmark
+    public String toCsvRow() {
+        next = (next + 1) & (SAMPLES - 1);
+        return entries.get(next).toCsvRow();
+    }
+}
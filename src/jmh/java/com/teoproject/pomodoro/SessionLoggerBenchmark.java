@@ -0,0 +1,62 @@
+package com.teoproject.pomodoro;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Appending to and reading back a log file of several sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionLoggerBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int logSize;
+
+    private Path directory;
+    private SessionLogger readLogger;
+    private SessionLogger appendLogger;
+    private int appended;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("pomodoro-bench");
+        Path readLog = directory.resolve("read.csv");
+        Path appendLog = directory.resolve("append.csv");
+        SyntheticSessions.writeLog(readLog, logSize, 7);
+        Files.copy(readLog, appendLog);
+        readLogger = new SessionLogger(readLog);
+        appendLogger = new SessionLogger(appendLog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Path file : List.of(directory.resolve("read.csv"), directory.resolve("append.csv"))) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void appendEntry() throws IOException {
+        appendLogger.appendEntry(SyntheticSessions.goal(appended++), 25, 1);
+    }
+
+    @Benchmark
+    public List<SessionLogEntry> readAllEntries() throws IOException {
+        return readLogger.readAllEntries();
+    }
+}
@@ -0,0 +1,39 @@
+package com.teoproject.pomodoro;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Weekly statistics over in-memory histories of several sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatisticsCalculatorBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int logSize;
+
+    private final StatisticsCalculator calculator = new StatisticsCalculator();
+    private List<SessionLogEntry> entries;
+    private LocalDate referenceDate;
+
+    @Setup
+    public void setUp() {
+        entries = SyntheticSessions.entries(logSize, 11);
+        referenceDate = entries.get(entries.size() - 1).getTimestamp().toLocalDate();
+    }
+
+    @Benchmark
+    public StatisticsCalculator.WeeklyStatistics calculateWeeklyStatistics() {
+        return calculator.calculateWeeklyStatistics(entries, referenceDate);
+    }
+}
@@ -0,0 +1,63 @@
+package com.teoproject.pomodoro;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of realistic-looking session data for benchmarks.
+ */
+final class SyntheticSessions {
+    private static final String[] GOALS = {
+            "Algebra homework", "Biology reading, chapter 4", "Chemistry lab report", "History essay",
+            "Physics problem set", "Vocabulary review", "Thesis outline", "Statistics revision, part \\2"
+    };
+    // Fixed so that a given seed always yields the same rows, whatever day the benchmark runs on.
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 6, 8, 0);
+
+    private SyntheticSessions() {
+    }
+
+    /**
+     * @return {@code count} entries in time order, two or three sessions per day
+     */
+    static List<SessionLogEntry> entries(int count, long seed) {
+        Random random = new Random(seed);
+        List<SessionLogEntry> entries = new ArrayList<>(count);
+        LocalDateTime time = START;
+        for (int i = 0; i < count; i++) {
+            time = time.plusMinutes(240 + random.nextInt(480));
+            int intervals = 1 + random.nextInt(4);
+            long minutes = intervals * 25L - random.nextInt(10);
+            entries.add(new SessionLogEntry(time, GOALS[random.nextInt(GOALS.length)], minutes, intervals));
+        }
+        return entries;
+    }
+
+    static List<String> csvRows(int count, long seed) {
+        List<String> rows = new ArrayList<>(count);
+        for (SessionLogEntry entry : entries(count, seed)) {
+            rows.add(entry.toCsvRow());
+        }
+        return rows;
+    }
+
+    static void writeLog(Path path, int count, long seed) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (String row : csvRows(count, seed)) {
+                writer.write(row);
+                writer.newLine();
+            }
+        }
+    }
+
+    static String goal(int index) {
+        return GOALS[index % GOALS.length];
+    }
+}
@@ -0,0 +1,182 @@
+package com.teoproject.pomodoro;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Computes any requested combination of study metrics in a single pass over the session log.
+ * Every metric is fed from the same loop, so requesting more metrics never adds another scan of
+ * the entries; day-based metrics (rolling averages and streaks) are derived afterwards from the
+ * per-day totals gathered during that pass.
+ */
+public class AnalyticsEngine {
+    public enum Metric {
+        GOAL_TOTALS,
+        DAILY_TOTALS,
+        ROLLING_AVERAGE,
+        STREAKS,
+        SESSION_LENGTH_DISTRIBUTION,
+        GOAL_PROGRESS,
+        SKETCHES
+    }
+
+    static final int ROLLING_WEEKS = 4;
+
+    public AnalyticsReport analyze(Iterable<? extends SessionLogEntry> entries, LocalDate referenceDate,
+                                   PomodoroConfiguration configuration, Set<Metric> metrics) {
+        if (metrics.isEmpty()) {
+            throw new IllegalArgumentException("At least one metric must be requested.");
+        }
+        long startNanos = System.nanoTime();
+        PomodoroEvents.StatisticsComputation event = new PomodoroEvents.StatisticsComputation();
+        event.begin();
+        Set<Metric> requested = EnumSet.copyOf(metrics);
+        boolean goalTotals = requested.contains(Metric.GOAL_TOTALS);
+        boolean dailyTotals = requested.contains(Metric.DAILY_TOTALS)
+                || requested.contains(Metric.ROLLING_AVERAGE)
+                || requested.contains(Metric.STREAKS);
+        boolean distribution = requested.contains(Metric.SESSION_LENGTH_DISTRIBUTION);
+        boolean goalProgress = requested.contains(Metric.GOAL_PROGRESS);
+        SessionSketches sketches = requested.contains(Metric.SKETCHES) ? new SessionSketches() : null;
+
+        String progressGoal = goalProgress ? normalizeGoal(configuration.getGoalDescription()) : null;
+
+        Map<String, GoalTotalAccumulator> goals = new HashMap<>();
+        TreeMap<LocalDate, Long> minutesByDay = new TreeMap<>();
+        long[] bucketCounts = new long[AnalyticsReport.LengthDistribution.BUCKET_LOWER_BOUNDS.length];
+        long sessions = 0;
+        long totalMinutes = 0;
+        long shortest = Long.MAX_VALUE;
+        long longest = 0;
+        long progressMinutes = 0;
+        int progressSessions = 0;
+        long scanned = 0;
+
+        for (SessionLogEntry entry : entries) {
+            scanned++;
+            long minutes = entry.getFocusMinutes();
+            if (goalTotals) {
+                // Grouped like GOAL_PROGRESS matches goals, so both metrics agree on what one goal is.
+                goals.computeIfAbsent(normalizeGoal(entry.getGoalDescription()),
+                                key -> new GoalTotalAccumulator(entry.getGoalDescription().trim()))
+                        .add(minutes, entry.getIntervalsCompleted());
+            }
+            if (dailyTotals) {
+                minutesByDay.merge(entry.getTimestamp().toLocalDate(), minutes, Long::sum);
+            }
+            if (distribution) {
+                bucketCounts[AnalyticsReport.LengthDistribution.bucketFor(minutes)]++;
+                sessions++;
+                totalMinutes += minutes;
+                shortest = Math.min(shortest, minutes);
+                longest = Math.max(longest, minutes);
+            }
+            if (goalProgress && !progressGoal.isEmpty()
+                    && progressGoal.equals(normalizeGoal(entry.getGoalDescription()))) {
+                progressMinutes += minutes;
+                progressSessions++;
+            }
+            if (sketches != null) {
+                sketches.accept(entry);
+            }
+        }
+
+        Map<String, AnalyticsReport.GoalTotal> totals = null;
+        if (goalTotals) {
+            totals = new TreeMap<>();
+            for (Map.Entry<String, GoalTotalAccumulator> goal : goals.entrySet()) {
+                GoalTotalAccumulator acc = goal.getValue();
+                totals.put(goal.getKey(), new AnalyticsReport.GoalTotal(acc.description, acc.minutes, acc.sessions, acc.intervals));
+            }
+        }
+
+        AnalyticsReport report = new AnalyticsReport(
+                referenceDate,
+                requested,
+                totals,
+                requested.contains(Metric.DAILY_TOTALS) ? minutesByDay : null,
+                requested.contains(Metric.ROLLING_AVERAGE) ? rollingAverage(minutesByDay, referenceDate) : null,
+                requested.contains(Metric.STREAKS) ? streaks(minutesByDay, referenceDate) : null,
+                distribution
+                        ? new AnalyticsReport.LengthDistribution(bucketCounts, sessions, totalMinutes, sessions == 0 ? 0 : shortest, longest)
+                        : null,
+                goalProgress
+                        ? new AnalyticsReport.GoalProgress(configuration.getGoalDescription(), configuration.getGoalTargetMinutes(), progressMinutes, progressSessions)
+                        : null,
+                sketches);
+        PomodoroMetrics.STATISTICS.computed(System.nanoTime() - startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.computation = "analytics " + requested;
+            event.entriesScanned = scanned;
+            event.entriesMatched = scanned;
+            event.commit();
+        }
+        return report;
+    }
+
+    private static AnalyticsReport.RollingAverage rollingAverage(TreeMap<LocalDate, Long> minutesByDay, LocalDate referenceDate) {
+        LocalDate windowStart = referenceDate.minusWeeks(ROLLING_WEEKS).plusDays(1);
+        long windowMinutes = 0;
+        for (long minutes : minutesByDay.subMap(windowStart, true, referenceDate, true).values()) {
+            windowMinutes += minutes;
+        }
+        return new AnalyticsReport.RollingAverage(windowStart, referenceDate, ROLLING_WEEKS, windowMinutes);
+    }
+
+    private static AnalyticsReport.Streaks streaks(TreeMap<LocalDate, Long> minutesByDay, LocalDate referenceDate) {
+        int longest = 0;
+        LocalDate longestEnd = null;
+        int run = 0;
+        LocalDate previous = null;
+        for (Map.Entry<LocalDate, Long> day : minutesByDay.headMap(referenceDate, true).entrySet()) {
+            if (day.getValue() <= 0) {
+                continue;
+            }
+            run = previous != null && previous.plusDays(1).equals(day.getKey()) ? run + 1 : 1;
+            previous = day.getKey();
+            if (run > longest) {
+                longest = run;
+                longestEnd = previous;
+            }
+        }
+
+        // A streak stays "current" through the reference day even if nothing is logged yet today.
+        int current = 0;
+        boolean currentOpen = previous != null
+                && (previous.equals(referenceDate) || previous.equals(referenceDate.minusDays(1)));
+        if (currentOpen) {
+            current = run;
+        }
+        return new AnalyticsReport.Streaks(current, longest, longestEnd);
+    }
+
+    /**
+     * @return the key goals are grouped and matched by: trimmed and lower-cased, so " Math" and
+     *         "math" are the same goal
+     */
+    static String normalizeGoal(String goal) {
+        return goal == null ? "" : goal.trim().toLowerCase(java.util.Locale.ROOT);
+    }
+
+    private static final class GoalTotalAccumulator {
+        private final String description;
+        private long minutes;
+        private int sessions;
+        private long intervals;
+
+        private GoalTotalAccumulator(String description) {
+            this.description = description;
+        }
+
+        private void add(long focusMinutes, int intervalsCompleted) {
+            minutes += focusMinutes;
+            sessions++;
+            intervals += intervalsCompleted;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.teoproject.pomodoro;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable result of an {@link AnalyticsEngine} run. Each requested metric is exposed as its own
+ * value object so the user interface and exporters can pick only the parts they need; asking for a
+ * metric that was not requested is a programming error.
+ */
+public class AnalyticsReport {
+    private final LocalDate referenceDate;
+    private final Set<AnalyticsEngine.Metric> metrics;
+    private final Map<String, GoalTotal> goalTotals;
+    private final SortedMap<LocalDate, Long> dailyTotals;
+    private final RollingAverage rollingAverage;
+    private final Streaks streaks;
+    private final LengthDistribution lengthDistribution;
+    private final GoalProgress goalProgress;
+    private final SessionSketches sketches;
+
+    AnalyticsReport(LocalDate referenceDate,
+                    Set<AnalyticsEngine.Metric> metrics,
+                    Map<String, GoalTotal> goalTotals,
+                    SortedMap<LocalDate, Long> dailyTotals,
+                    RollingAverage rollingAverage,
+                    Streaks streaks,
+                    LengthDistribution lengthDistribution,
+                    GoalProgress goalProgress,
+                    SessionSketches sketches) {
+        this.referenceDate = referenceDate;
+        this.metrics = Collections.unmodifiableSet(EnumSet.copyOf(metrics));
+        this.goalTotals = goalTotals == null ? null : Collections.unmodifiableMap(goalTotals);
+        this.dailyTotals = dailyTotals == null ? null : Collections.unmodifiableSortedMap(new TreeMap<>(dailyTotals));
+        this.rollingAverage = rollingAverage;
+        this.streaks = streaks;
+        this.lengthDistribution = lengthDistribution;
+        this.goalProgress = goalProgress;
+        this.sketches = sketches;
+    }
+
+    public LocalDate getReferenceDate() {
+        return referenceDate;
+    }
+
+    public Set<AnalyticsEngine.Metric> getMetrics() {
+        return metrics;
+    }
+
+    public boolean hasMetric(AnalyticsEngine.Metric metric) {
+        return metrics.contains(metric);
+    }
+
+    /**
+     * @return totals keyed by the trimmed, lower-case goal description, sorted alphabetically; each
+     * total carries the first spelling of the goal that was seen
+     */
+    public Map<String, GoalTotal> getGoalTotals() {
+        return require(AnalyticsEngine.Metric.GOAL_TOTALS, goalTotals);
+    }
+
+    /**
+     * @return focus minutes per calendar day, only containing days with logged sessions
+     */
+    public SortedMap<LocalDate, Long> getDailyTotals() {
+        return require(AnalyticsEngine.Metric.DAILY_TOTALS, dailyTotals);
+    }
+
+    public RollingAverage getRollingAverage() {
+        return require(AnalyticsEngine.Metric.ROLLING_AVERAGE, rollingAverage);
+    }
+
+    public Streaks getStreaks() {
+        return require(AnalyticsEngine.Metric.STREAKS, streaks);
+    }
+
+    public LengthDistribution getLengthDistribution() {
+        return require(AnalyticsEngine.Metric.SESSION_LENGTH_DISTRIBUTION, lengthDistribution);
+    }
+
+    public GoalProgress getGoalProgress() {
+        return require(AnalyticsEngine.Metric.GOAL_PROGRESS, goalProgress);
+    }
+
+    /**
+     * @return approximate, mergeable summaries of the analysed entries
+     */
+    public SessionSketches getSketches() {
+        return require(AnalyticsEngine.Metric.SKETCHES, sketches);
+    }
+
+    private <T> T require(AnalyticsEngine.Metric metric, T value) {
+        if (!metrics.contains(metric)) {
+            throw new IllegalStateException("Metric " + metric + " was not requested.");
+        }
+        return value;
+    }
+
+    public static class GoalTotal {
+        private final String goalDescription;
+        private final long totalMinutes;
+        private final int sessions;
+        private final long intervals;
+
+        public GoalTotal(String goalDescription, long totalMinutes, int sessions, long intervals) {
+            this.goalDescription = goalDescription;
+            this.totalMinutes = totalMinutes;
+            this.sessions = sessions;
+            this.intervals = intervals;
+        }
+
+        public String getGoalDescription() {
+            return goalDescription;
+        }
+
+        public long getTotalMinutes() {
+            return totalMinutes;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        public long getIntervals() {
+            return intervals;
+        }
+    }
+
+    /**
+     * Average focus time over the trailing window of whole weeks ending on the reference date.
+     */
+    public static class RollingAverage {
+        private final LocalDate windowStart;
+        private final LocalDate windowEnd;
+        private final int weeks;
+        private final long windowMinutes;
+
+        public RollingAverage(LocalDate windowStart, LocalDate windowEnd, int weeks, long windowMinutes) {
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.weeks = weeks;
+            this.windowMinutes = windowMinutes;
+        }
+
+        public LocalDate getWindowStart() {
+            return windowStart;
+        }
+
+        public LocalDate getWindowEnd() {
+            return windowEnd;
+        }
+
+        public int getWeeks() {
+            return weeks;
+        }
+
+        public long getWindowMinutes() {
+            return windowMinutes;
+        }
+
+        public double getAverageMinutesPerWeek() {
+            return windowMinutes / (double) weeks;
+        }
+
+        public double getAverageMinutesPerDay() {
+            return windowMinutes / (weeks * 7.0);
+        }
+    }
+
+    public static class Streaks {
+        private final int currentStreakDays;
+        private final int longestStreakDays;
+        private final LocalDate longestStreakEnd;
+
+        public Streaks(int currentStreakDays, int longestStreakDays, LocalDate longestStreakEnd) {
+            this.currentStreakDays = currentStreakDays;
+            this.longestStreakDays = longestStreakDays;
+            this.longestStreakEnd = longestStreakEnd;
+        }
+
+        public int getCurrentStreakDays() {
+            return currentStreakDays;
+        }
+
+        public int getLongestStreakDays() {
+            return longestStreakDays;
+        }
+
+        /**
+         * @return last day of the longest streak, or {@code null} when nothing has been logged
+         */
+        public LocalDate getLongestStreakEnd() {
+            return longestStreakEnd;
+        }
+    }
+
+    /**
+     * Histogram of focus minutes per logged session.
+     */
+    public static class LengthDistribution {
+        static final long[] BUCKET_LOWER_BOUNDS = {0, 15, 30, 60, 120};
+
+        private final long[] bucketCounts;
+        private final long sessions;
+        private final long totalMinutes;
+        private final long shortestMinutes;
+        private final long longestMinutes;
+
+        public LengthDistribution(long[] bucketCounts, long sessions, long totalMinutes, long shortestMinutes, long longestMinutes) {
+            if (bucketCounts.length != BUCKET_LOWER_BOUNDS.length) {
+                throw new IllegalArgumentException("Expected " + BUCKET_LOWER_BOUNDS.length + " buckets.");
+            }
+            this.bucketCounts = bucketCounts.clone();
+            this.sessions = sessions;
+            this.totalMinutes = totalMinutes;
+            this.shortestMinutes = shortestMinutes;
+            this.longestMinutes = longestMinutes;
+        }
+
+        static int bucketFor(long minutes) {
+            for (int i = BUCKET_LOWER_BOUNDS.length - 1; i > 0; i--) {
+                if (minutes >= BUCKET_LOWER_BOUNDS[i]) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        public int getBucketCount() {
+            return bucketCounts.length;
+        }
+
+        public String getBucketLabel(int bucket) {
+            if (bucket == bucketCounts.length - 1) {
+                return BUCKET_LOWER_BOUNDS[bucket] + "+";
+            }
+            return BUCKET_LOWER_BOUNDS[bucket] + "-" + (BUCKET_LOWER_BOUNDS[bucket + 1] - 1);
+        }
+
+        public long getSessionsInBucket(int bucket) {
+            return bucketCounts[bucket];
+        }
+
+        public long getSessions() {
+            return sessions;
+        }
+
+        public long getShortestMinutes() {
+            return shortestMinutes;
+        }
+
+        public long getLongestMinutes() {
+            return longestMinutes;
+        }
+
+        public double getAverageMinutes() {
+            return sessions == 0 ? 0 : totalMinutes / (double) sessions;
+        }
+    }
+
+    /**
+     * Minutes logged against the configured study goal compared with its target duration.
+     */
+    public static class GoalProgress {
+        private final String goalDescription;
+        private final int targetMinutes;
+        private final long loggedMinutes;
+        private final int sessions;
+
+        public GoalProgress(String goalDescription, int targetMinutes, long loggedMinutes, int sessions) {
+            this.goalDescription = goalDescription;
+            this.targetMinutes = targetMinutes;
+            this.loggedMinutes = loggedMinutes;
+            this.sessions = sessions;
+        }
+
+        public String getGoalDescription() {
+            return goalDescription;
+        }
+
+        public int getTargetMinutes() {
+            return targetMinutes;
+        }
+
+        public long getLoggedMinutes() {
+            return loggedMinutes;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        public boolean hasTarget() {
+            return targetMinutes > 0;
+        }
+
+        /**
+         * @return fraction of the target achieved, capped at 1.0, or 0 when no target is set
+         */
+        public double getCompletionRatio() {
+            return hasTarget() ? Math.min(1.0, loggedMinutes / (double) targetMinutes) : 0.0;
+        }
+
+        public boolean isReached() {
+            return hasTarget() && loggedMinutes >= targetMinutes;
+        }
+    }
+}
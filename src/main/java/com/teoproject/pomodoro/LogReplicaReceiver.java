@@ -0,0 +1,254 @@
+package com.teoproject.pomodoro;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Receives session logs shipped by {@link LogShipper}s and keeps one replica file per source in a
+ * directory. Replicas are plain session logs, so they can be read with {@link SessionLogger} or fed
+ * to {@link PomodoroReport}.
+ *
+ * <p>Protocol, all big-endian: the shipper sends the magic number {@code PLSH}, a version byte and
+ * its replica name; the receiver answers with the replica's length and a CRC-32 of its last
+ * {@value #TAIL_CHECK_BYTES} bytes, so the shipper can resume where the replica ends or ask for a
+ * reset if the histories diverged. Then the shipper sends frames (data: offset, length, bytes; or
+ * reset) and the receiver acknowledges each one with the replica's new length once it is on disk.
+ *
+ * <pre>
+ * java -cp pomodoro-app-1.0.0.jar com.teoproject.pomodoro.LogReplicaReceiver \
+ *     [--bind 127.0.0.1] [--port 7077] [--dir replicas]
+ * </pre>
+ */
+public final class LogReplicaReceiver implements Closeable {
+    public static final int DEFAULT_PORT = 7077;
+
+    static final int MAGIC = 0x504C5348;
+    static final byte VERSION = 1;
+    static final byte FRAME_DATA = 1;
+    static final byte FRAME_RESET = 2;
+    static final int TAIL_CHECK_BYTES = 4096;
+    static final int MAX_FRAME_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final Path replicaDirectory;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Pomodoro-Replica-Connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentHashMap<String, Object> replicaLocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Socket> activeConnections = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Binds the server socket; call {@link #start()} to accept connections.
+     *
+     * @param port port to listen on, or 0 for any free port
+     */
+    public LogReplicaReceiver(Path replicaDirectory, InetAddress bindAddress, int port) throws IOException {
+        this.replicaDirectory = replicaDirectory;
+        Files.createDirectories(replicaDirectory);
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(bindAddress, port));
+    }
+
+    public static void main(String[] args) {
+        InetAddress bind;
+        int port = DEFAULT_PORT;
+        Path directory = Paths.get("replicas");
+        try {
+            bind = InetAddress.getLoopbackAddress();
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--bind" -> bind = InetAddress.getByName(value);
+                    case "--port" -> port = Integer.parseInt(value);
+                    case "--dir" -> directory = Paths.get(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                }
+            }
+        } catch (IllegalArgumentException | IOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.err.println("Usage: LogReplicaReceiver [--bind ADDRESS] [--port PORT] [--dir DIRECTORY]");
+            System.exit(2);
+            return;
+        }
+
+        try {
+            LogReplicaReceiver receiver = new LogReplicaReceiver(directory, bind, port);
+            System.out.println("Receiving session logs on " + receiver.serverSocket.getLocalSocketAddress()
+                    + " into " + directory.toAbsolutePath());
+            receiver.acceptLoop();
+        } catch (IOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Accepts connections on a background thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "Pomodoro-Replica-Acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException ex) {
+                if (!closed) {
+                    System.err.println("Replica receiver stopped accepting: " + ex.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String name = null;
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("unknown protocol");
+            }
+            name = replicaName(in.readUTF());
+            // A shipper that reconnects replaces its previous, possibly half-open, connection.
+            Socket previous = activeConnections.put(name, socket);
+            if (previous != null) {
+                previous.close();
+            }
+            synchronized (replicaLocks.computeIfAbsent(name, key -> new Object())) {
+                receive(getReplicaPath(name), in, out);
+            }
+        } catch (SocketException ex) {
+            // Closed by the shipper, by a replacing connection or by close().
+        } catch (IOException ex) {
+            System.err.println("Replica connection " + (name == null ? socket.getRemoteSocketAddress() : name)
+                    + " failed: " + ex.getMessage());
+        } finally {
+            if (name != null) {
+                activeConnections.remove(name, socket);
+            }
+        }
+    }
+
+    private void receive(Path replica, DataInputStream in, DataOutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(replica, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            out.writeLong(length);
+            out.writeLong(tailChecksum(channel, length));
+            out.flush();
+
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    return;
+                }
+                if (type == FRAME_RESET) {
+                    channel.truncate(0);
+                    length = 0;
+                } else if (type == FRAME_DATA) {
+                    long offset = in.readLong();
+                    int count = in.readInt();
+                    if (count <= 0 || count > MAX_FRAME_BYTES) {
+                        throw new IOException("invalid frame length " + count);
+                    }
+                    if (offset != length) {
+                        throw new IOException("frame at offset " + offset + " but replica has " + length + " bytes");
+                    }
+                    byte[] data = new byte[count];
+                    in.readFully(data);
+                    ByteBuffer buffer = ByteBuffer.wrap(data);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer, length + buffer.position());
+                    }
+                    channel.force(false);
+                    length += count;
+                } else {
+                    throw new IOException("unknown frame type " + type);
+                }
+                out.writeLong(length);
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * CRC-32 of the last {@value #TAIL_CHECK_BYTES} bytes before {@code length}, used by both sides
+     * to check that a replica is a prefix of the log before resuming.
+     */
+    static long tailChecksum(FileChannel channel, long length) throws IOException {
+        int count = (int) Math.min(TAIL_CHECK_BYTES, length);
+        ByteBuffer buffer = ByteBuffer.allocate(count);
+        long start = length - count;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        return crc.getValue();
+    }
+
+    static String replicaName(String requested) throws IOException {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < requested.length() && name.length() < MAX_NAME_LENGTH; i++) {
+            char ch = requested.charAt(i);
+            boolean safe = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+                    || ch == '-' || ch == '_' || ch == '@' || (ch == '.' && i > 0);
+            name.append(safe ? ch : '_');
+        }
+        if (name.length() == 0) {
+            throw new IOException("empty replica name");
+        }
+        return name.toString();
+    }
+
+    public Path getReplicaPath(String name) throws IOException {
+        return replicaDirectory.resolve(replicaName(name) + ".csv");
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : activeConnections.values()) {
+            socket.close();
+        }
+        connections.shutdown();
+    }
+}
@@ -0,0 +1,389 @@
+package com.teoproject.pomodoro;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Streams a session log to a {@link LogReplicaReceiver} as it grows. Appends only wake the
+ * shipper's background thread, so they never wait on the network; the thread then sends every
+ * complete line past the replica's end in batches of up to {@value #BATCH_BYTES} bytes.
+ *
+ * <p>After a disconnect the shipper reconnects with growing back-off and resumes from the length
+ * the receiver reports, after checking that the replica's tail matches the local log. If the local
+ * log was rewritten (for example by compaction) the replica is reset and shipped again from the
+ * start.
+ */
+public class LogShipper implements SessionLogListener, Closeable {
+    /** System property of the form {@code host:port} that enables shipping in the application. */
+    public static final String TARGET_PROPERTY = "pomodoro.replicaTarget";
+    /** System property overriding the replica name, which defaults to {@code user@host}. */
+    public static final String NAME_PROPERTY = "pomodoro.replicaName";
+
+    private static final int BATCH_BYTES = 256 * 1024;
+    private static final long IDLE_POLL_MILLIS = 5000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int ACK_TIMEOUT_MILLIS = 30000;
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private final SessionLogger logger;
+    private final InetSocketAddress target;
+    private final String replicaName;
+    private final Thread worker;
+
+    private final Object signal = new Object();
+    private boolean pending = true;
+    private volatile boolean closed;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private volatile long shippedOffset = -1;
+    // Set by the logger after it rewrites the log; file keys alone miss rewrites on some platforms.
+    private volatile boolean rewritten;
+    private String lastError;
+    private Object shippedFileKey;
+
+    public LogShipper(SessionLogger logger, String host, int port, String replicaName) {
+        this.logger = logger;
+        this.target = InetSocketAddress.createUnresolved(host, port);
+        this.replicaName = replicaName;
+        logger.addListener(this);
+        this.worker = new Thread(this::shipLoop, "Pomodoro-Log-Shipper");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * @return {@code user@host}, so that the same account on different machines, e.g. a shared
+     *         login, gets a replica of its own instead of overwriting another machine's
+     */
+    static String defaultReplicaName() {
+        String user = System.getProperty("user.name", "pomodoro");
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = System.getenv().getOrDefault("COMPUTERNAME", System.getenv("HOSTNAME"));
+        }
+        return host == null || host.isBlank() ? user : user + "@" + host;
+    }
+
+    /**
+     * Creates a shipper from {@value #TARGET_PROPERTY}, or returns {@code null} if it is not set or
+     * not of the form {@code host:port}.
+     */
+    public static LogShipper fromSystemProperties(SessionLogger logger) {
+        String value = System.getProperty(TARGET_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int colon = value.lastIndexOf(':');
+        try {
+            String host = value.substring(0, colon);
+            int port = Integer.parseInt(value.substring(colon + 1));
+            String name = System.getProperty(NAME_PROPERTY);
+            if (name == null || name.isBlank()) {
+                name = defaultReplicaName();
+            }
+            return new LogShipper(logger, host, port, name);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException ex) {
+            System.err.println("Ignoring invalid " + TARGET_PROPERTY + " '" + value + "'; expected host:port.");
+            return null;
+        }
+    }
+
+    @Override
+    public void onEntryAppended(SessionLogEntry entry, long offset) {
+        synchronized (signal) {
+            pending = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Makes the next shipping pass reset the replica and send the rewritten log from the start.
+     */
+    @Override
+    public void onLogRewritten() {
+        rewritten = true;
+        synchronized (signal) {
+            pending = true;
+            signal.notifyAll();
+        }
+    }
+
+    private void shipLoop() {
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        while (!closed) {
+            try {
+                shipOverConnection();
+            } catch (IOException ex) {
+                if (closed) {
+                    return;
+                }
+                backoff = connected ? INITIAL_BACKOFF_MILLIS : Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                connected = false;
+                reportError(ex);
+                synchronized (signal) {
+                    try {
+                        signal.wait(backoff);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void shipOverConnection() throws IOException {
+        InetSocketAddress address = new InetSocketAddress(target.getHostString(), target.getPort());
+        try (Socket connection = new Socket()) {
+            socket = connection;
+            if (closed) {
+                return;
+            }
+            connection.connect(address, CONNECT_TIMEOUT_MILLIS);
+            connection.setSoTimeout(ACK_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+
+            out.writeInt(LogReplicaReceiver.MAGIC);
+            out.writeByte(LogReplicaReceiver.VERSION);
+            out.writeUTF(replicaName);
+            out.flush();
+            long offset = resumeOffset(in.readLong(), in.readLong(), in, out);
+            shippedOffset = offset;
+            connected = true;
+            if (lastError != null) {
+                System.err.println("Log shipping to " + describeTarget() + " resumed at byte " + offset + ".");
+                lastError = null;
+            }
+
+            while (!closed) {
+                synchronized (signal) {
+                    if (!pending) {
+                        try {
+                            signal.wait(IDLE_POLL_MILLIS);
+                        } catch (InterruptedException ex) {
+                            return;
+                        }
+                    }
+                    // Cleared before reading so that an append during shipping triggers another pass.
+                    pending = false;
+                }
+                offset = shipAvailable(offset, in, out);
+            }
+        } finally {
+            socket = null;
+        }
+    }
+
+    /**
+     * @return the offset to continue from: the replica's length if it is a prefix of the local log,
+     * otherwise 0 after resetting the replica
+     */
+    private long resumeOffset(long replicaLength, long replicaChecksum, DataInputStream in, DataOutputStream out)
+            throws IOException {
+        Path logPath = logger.getLogPath();
+        // Cleared before the log is read so that a rewrite from now on forces another reset.
+        boolean forceReset = rewritten;
+        rewritten = false;
+        if (!Files.exists(logPath)) {
+            shippedFileKey = null;
+        } else {
+            try (OpenLog log = OpenLog.open(logPath)) {
+                shippedFileKey = log.fileKey;
+                if (replicaLength == 0) {
+                    return 0;
+                }
+                if (!forceReset && log.channel.size() >= replicaLength
+                        && LogReplicaReceiver.tailChecksum(log.channel, replicaLength) == replicaChecksum) {
+                    return replicaLength;
+                }
+            }
+        }
+        if (replicaLength == 0) {
+            return 0;
+        }
+        return reset(in, out);
+    }
+
+    private long reset(DataInputStream in, DataOutputStream out) throws IOException {
+        out.writeByte(LogReplicaReceiver.FRAME_RESET);
+        out.flush();
+        expectAck(in, 0);
+        return 0;
+    }
+
+    private long shipAvailable(long offset, DataInputStream in, DataOutputStream out) throws IOException {
+        Path logPath = logger.getLogPath();
+        if (!Files.exists(logPath)) {
+            return offset;
+        }
+        // Cleared before the log is opened so that a rewrite from now on triggers another reset.
+        boolean resetReplica = rewritten;
+        rewritten = false;
+        // Opened per pass so that a log replaced on disk is picked up.
+        try (OpenLog log = OpenLog.open(logPath)) {
+            FileChannel channel = log.channel;
+            if (resetReplica) {
+                // Compaction may keep the size, and on some platforms the file key, of the old log,
+                // so no offset into the old file can be trusted; start the replica over.
+                offset = reset(in, out);
+                shippedOffset = offset;
+                shippedFileKey = log.fileKey;
+            }
+            long size = channel.size();
+            if (size < offset || !Objects.equals(log.fileKey, shippedFileKey)) {
+                throw new IOException("local log was rewritten; resynchronising");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BATCH_BYTES, size - offset));
+            while (offset < size && !closed) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), size - offset));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                int count = completeLinesLength(buffer.array(), buffer.position());
+                if (count == 0) {
+                    if (buffer.position() < BATCH_BYTES) {
+                        // The last line is still being written; it goes out with the next pass.
+                        break;
+                    }
+                    count = buffer.position();
+                }
+                out.writeByte(LogReplicaReceiver.FRAME_DATA);
+                out.writeLong(offset);
+                out.writeInt(count);
+                out.write(buffer.array(), 0, count);
+                out.flush();
+                offset = expectAck(in, offset + count);
+                shippedOffset = offset;
+            }
+        }
+        return offset;
+    }
+
+    private static Object fileKey(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * A log file opened for reading together with the file key of the file actually opened: the key
+     * is looked up before and after opening, and the open is retried if the log was swapped in
+     * between.
+     */
+    private static final class OpenLog implements Closeable {
+        private final FileChannel channel;
+        private final Object fileKey;
+
+        private OpenLog(FileChannel channel, Object fileKey) {
+            this.channel = channel;
+            this.fileKey = fileKey;
+        }
+
+        private static OpenLog open(Path path) throws IOException {
+            while (true) {
+                Object before = fileKey(path);
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                try {
+                    Object after = fileKey(path);
+                    if (Objects.equals(before, after)) {
+                        return new OpenLog(channel, after);
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    channel.close();
+                    throw ex;
+                }
+                channel.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static int completeLinesLength(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static long expectAck(DataInputStream in, long expectedLength) throws IOException {
+        long acknowledged = in.readLong();
+        if (acknowledged != expectedLength) {
+            throw new IOException("replica acknowledged " + acknowledged + " bytes, expected " + expectedLength);
+        }
+        return acknowledged;
+    }
+
+    private void reportError(IOException ex) {
+        String message = ex.getMessage() != null ? ex.getMessage() : "connection closed by the receiver";
+        if (!message.equals(lastError)) {
+            System.err.println("Log shipping to " + describeTarget() + " interrupted: " + message
+                    + "; retrying in the background.");
+        }
+        lastError = message;
+    }
+
+    private String describeTarget() {
+        return target.getHostString() + ":" + target.getPort();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * @return bytes of the log known to be on the replica, or -1 before the first handshake
+     */
+    public long getShippedOffset() {
+        return shippedOffset;
+    }
+
+    /**
+     * Stops shipping and closes the connection. Anything not yet shipped is sent by the next
+     * shipper for this log, which resumes from the replica's length.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        logger.removeListener(this);
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+        try {
+            worker.join(CONNECT_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
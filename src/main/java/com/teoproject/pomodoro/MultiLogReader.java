@@ -0,0 +1,161 @@
+package com.teoproject.pomodoro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges several session logs into one timestamp-ordered sequence without loading them. Each
+ * source is streamed and only its next entry is held in memory, so memory use grows with the
+ * number of sources rather than their size. Every entry is tagged with the name of its source.
+ *
+ * <p>Each source is expected to be in timestamp order, as {@link SessionLogger} writes it; a
+ * source that goes back in time is still read completely, but the merged order is then only as
+ * good as the input. Entries with equal timestamps are returned in source order.
+ *
+ * <p>The reader can be iterated once and must be closed to release the underlying files.
+ */
+public class MultiLogReader implements Iterable<SourcedLogEntry>, Closeable {
+    private final List<Cursor> cursors = new ArrayList<>();
+    private final PriorityQueue<Cursor> queue = new PriorityQueue<>(
+            Comparator.comparing((Cursor cursor) -> cursor.head.getTimestamp()).thenComparingInt(cursor -> cursor.order));
+    private boolean iterated;
+
+    /**
+     * @param sources loggers keyed by the source name attached to their entries
+     */
+    public MultiLogReader(Map<String, SessionLogger> sources) throws IOException {
+        try {
+            for (Map.Entry<String, SessionLogger> source : sources.entrySet()) {
+                addSource(source.getKey(), source.getValue().streamEntries());
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    private MultiLogReader() {
+    }
+
+    /**
+     * Merges scratch files of valid log rows, such as the sorted runs of a compaction, each named
+     * after its file name. They are read directly rather than through a {@link SessionLogger}, so
+     * they do not show up in the session log's read metrics or flight recorder events.
+     */
+    static MultiLogReader ofRowFiles(List<Path> files) throws IOException {
+        MultiLogReader reader = new MultiLogReader();
+        try {
+            for (Path file : files) {
+                reader.addSource(file.getFileName().toString(), Files.lines(file, StandardCharsets.UTF_8)
+                        .filter(line -> !line.isBlank())
+                        .map(SessionLogEntry::fromCsvRow));
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            reader.close();
+            throw ex;
+        }
+        return reader;
+    }
+
+    private void addSource(String name, Stream<SessionLogEntry> stream) {
+        Cursor cursor = new Cursor(name, cursors.size(), stream);
+        cursors.add(cursor);
+        if (cursor.advance()) {
+            queue.add(cursor);
+        }
+    }
+
+    /**
+     * Creates a reader that names each source after its log file path.
+     */
+    public static MultiLogReader of(List<SessionLogger> loggers) throws IOException {
+        Map<String, SessionLogger> sources = new LinkedHashMap<>();
+        for (SessionLogger logger : loggers) {
+            sources.put(logger.getLogPath().toString(), logger);
+        }
+        return new MultiLogReader(sources);
+    }
+
+    @Override
+    public Iterator<SourcedLogEntry> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("A MultiLogReader can only be iterated once.");
+        }
+        iterated = true;
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public SourcedLogEntry next() {
+                Cursor cursor = queue.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                SourcedLogEntry entry = new SourcedLogEntry(cursor.source, cursor.head);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * @return the merged entries as a sequential stream; closing the stream closes this reader
+     */
+    public Stream<SourcedLogEntry> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    public int getSourceCount() {
+        return cursors.size();
+    }
+
+    @Override
+    public void close() {
+        queue.clear();
+        for (Cursor cursor : cursors) {
+            cursor.stream.close();
+        }
+    }
+
+    private static final class Cursor {
+        private final String source;
+        private final int order;
+        private final Stream<SessionLogEntry> stream;
+        private final Iterator<SessionLogEntry> iterator;
+        private SessionLogEntry head;
+
+        private Cursor(String source, int order, Stream<SessionLogEntry> stream) {
+            this.source = source;
+            this.order = order;
+            this.stream = stream;
+            this.iterator = stream.iterator();
+        }
+
+        private boolean advance() {
+            head = iterator.hasNext() ? iterator.next() : null;
+            return head != null;
+        }
+    }
+}
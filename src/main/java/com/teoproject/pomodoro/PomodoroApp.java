@@ -6,10 +6,20 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.HeadlessException;
 import java.awt.Insets;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.IOException;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListSelectionModel;
 import javax.swing.JButton;
@@ -26,19 +36,36 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 
 /**
  * Graphical Pomodoro application that allows goal setting, timer control, configuration updates,
  * and statistics review without leaving the desktop interface.
  */
 public class PomodoroApp extends JFrame {
+    private static final int SETTINGS_TAB = 1;
+    private static final int STATISTICS_TAB = 2;
 
     private final PomodoroConfiguration configuration = new PomodoroConfiguration();
     private final SessionLogger sessionLogger = new SessionLogger();
     private final StatisticsCalculator statisticsCalculator = new StatisticsCalculator();
+    private final AnalyticsEngine analyticsEngine = new AnalyticsEngine();
+    private final TimerScheduler timerScheduler;
+    private final SessionEventRecorder sessionEventRecorder;
+    private final LogShipper logShipper = LogShipper.fromSystemProperties(sessionLogger);
+    private final StatisticsCache statisticsCache = new StatisticsCache(sessionLogger, statisticsCalculator, analyticsEngine);
+    private final SessionLogPager logPager = new SessionLogPager(sessionLogger.getLogPath());
+    private final SessionSearchIndex searchIndex = new SessionSearchIndex();
+    private final SessionDashboard sessionDashboard = new SessionDashboard();
+    private final ExecutorService logWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Pomodoro-Log-Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private StatisticsRefreshWorker refreshWorker;
 
     private PomodoroTimer currentTimer;
 
@@ -62,8 +89,18 @@ public class PomodoroApp extends JFrame {
     private JLabel totalHoursLabel;
     private JLabel sessionsCompletedLabel;
     private JLabel intervalsCompletedLabel;
+    private JLabel rollingAverageLabel;
+    private JLabel streakLabel;
+    private JLabel goalProgressLabel;
     private JLabel logLocationLabel;
-    private DefaultTableModel logTableModel;
+    private JProgressBar refreshProgressBar;
+    private JButton compactButton;
+    private JTextField searchField;
+    private JTextField searchFromField;
+    private JTextField searchToField;
+    private JLabel searchResultLabel;
+    private SessionLogTableModel logTableModel;
+    private JTable logTable;
 
     private PomodoroTimer.Phase lastKnownPhase = PomodoroTimer.Phase.IDLE;
     private long activeWorkSeconds;
@@ -82,33 +119,94 @@ public class PomodoroApp extends JFrame {
     };
 
     public PomodoroApp() {
+        this(TimerScheduler.REAL_TIME);
+    }
+
+    /**
+     * @param timerScheduler runs the session timers, e.g. a {@link VirtualTimeScheduler} advanced on
+     *                       the Event Dispatch Thread to drive the whole application on simulated time
+     */
+    public PomodoroApp(TimerScheduler timerScheduler) {
         super("Pomodoro Timer with Goals & Statistics");
+        this.timerScheduler = timerScheduler;
+        this.sessionEventRecorder = new SessionEventRecorder(
+                sessionLogger.getLogPath().resolveSibling("session_events.bin"), timerScheduler);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setMinimumSize(new Dimension(900, 600));
         setLocationRelativeTo(null);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                flushPendingWrites();
+            }
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Queued behind the first paint, so this marks when the frame is actually on screen.
+                SwingUtilities.invokeLater(PomodoroApp::firstFrameShown);
+            }
+        });
+        sessionLogger.addListener(logPager);
+        sessionLogger.addListener(searchIndex);
+        sessionLogger.addListener(statisticsCache);
         buildUi();
-        refreshStatistics();
     }
 
     public static void main(String[] args) {
+        StartupTimer.markMainStarted();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
             } catch (Exception ignored) {
                 // Use default look and feel if the system one is unavailable.
             }
-            new PomodoroApp().setVisible(true);
+            try {
+                new PomodoroApp().setVisible(true);
+            } catch (HeadlessException ex) {
+                if (!StartupTimer.isExitAfterFirstFrame()) {
+                    throw ex;
+                }
+                // A headless class-data-sharing training run still archives every class loaded so far.
+                System.err.println("No display available; ending training run early.");
+                System.exit(0);
+            }
         });
+        // Published from the otherwise idle main thread so JMX start-up does not delay the first frame.
+        PomodoroMetrics.registerMBeans();
     }
 
+    private static void firstFrameShown() {
+        StartupTimer.markFirstFrame();
+        if (StartupTimer.isExitAfterFirstFrame()) {
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Builds the timer tab straight away and the settings and statistics tabs the first time they
+     * are selected, so startup neither constructs hidden components nor reads the session log.
+     */
     private void buildUi() {
         JTabbedPane tabs = new JTabbedPane();
         tabs.addTab("Timer", buildTimerPanel());
-        tabs.addTab("Settings", buildSettingsPanel());
-        tabs.addTab("Statistics", buildStatisticsPanel());
+        tabs.addTab("Settings", new JPanel());
+        tabs.addTab("Statistics", new JPanel());
+        tabs.addTab("Dashboard", sessionDashboard);
+        tabs.addChangeListener(e -> buildSelectedTab(tabs));
         add(tabs, BorderLayout.CENTER);
     }
 
+    private void buildSelectedTab(JTabbedPane tabs) {
+        int index = tabs.getSelectedIndex();
+        if (index == SETTINGS_TAB && workDurationSpinner == null) {
+            tabs.setComponentAt(index, buildSettingsPanel());
+        } else if (index == STATISTICS_TAB && logTableModel == null) {
+            tabs.setComponentAt(index, buildStatisticsPanel());
+            refreshStatistics();
+        }
+    }
+
     private JComponent buildTimerPanel() {
         JPanel panel = new JPanel(new BorderLayout(24, 24));
         panel.setBorder(new EmptyBorder(24, 24, 24, 24));
@@ -279,32 +377,135 @@ public class PomodoroApp extends JFrame {
 
         gbc.gridx = 0;
         gbc.gridy = 4;
-        gbc.gridwidth = 2;
+        summaryPanel.add(new JLabel("4-week average:"), gbc);
+        gbc.gridx = 1;
+        rollingAverageLabel = new JLabel("0 min / week");
+        summaryPanel.add(rollingAverageLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        summaryPanel.add(new JLabel("Study streak:"), gbc);
+        gbc.gridx = 1;
+        streakLabel = new JLabel("0 days");
+        summaryPanel.add(streakLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        summaryPanel.add(new JLabel("Goal progress:"), gbc);
+        gbc.gridx = 1;
+        goalProgressLabel = new JLabel("No target set");
+        summaryPanel.add(goalProgressLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 7;
         JButton refreshButton = new JButton("Refresh Statistics");
         refreshButton.addActionListener(e -> refreshStatistics());
         summaryPanel.add(refreshButton, gbc);
+        gbc.gridx = 1;
+        compactButton = new JButton("Compact Log");
+        compactButton.setToolTipText("Sort the session log by time and remove duplicate rows");
+        compactButton.addActionListener(e -> compactLog());
+        summaryPanel.add(compactButton, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 8;
+        gbc.gridwidth = 2;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        refreshProgressBar = new JProgressBar(0, 100);
+        refreshProgressBar.setStringPainted(true);
+        refreshProgressBar.setString("Loading session log...");
+        refreshProgressBar.setVisible(false);
+        summaryPanel.add(refreshProgressBar, gbc);
 
         panel.add(summaryPanel, BorderLayout.NORTH);
 
-        logTableModel = new DefaultTableModel(new Object[] {"Date", "Goal", "Focus (min)", "Intervals"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        logTableModel = new SessionLogTableModel();
 
-        JTable logTable = new JTable(logTableModel);
+        logTable = new JTable(logTableModel);
         logTable.setSelectionMode(DefaultListSelectionModel.SINGLE_SELECTION);
         logTable.getColumnModel().getColumn(0).setPreferredWidth(160);
         logTable.getColumnModel().getColumn(1).setPreferredWidth(260);
 
-        panel.add(new JScrollPane(logTable), BorderLayout.CENTER);
+        JPanel logPanel = new JPanel(new BorderLayout(8, 8));
+        logPanel.add(buildSearchPanel(), BorderLayout.NORTH);
+        logPanel.add(new JScrollPane(logTable), BorderLayout.CENTER);
+        panel.add(logPanel, BorderLayout.CENTER);
 
         logLocationLabel = new JLabel();
         panel.add(logLocationLabel, BorderLayout.SOUTH);
         return panel;
     }
 
+    private JComponent buildSearchPanel() {
+        JPanel searchPanel = new JPanel();
+        searchPanel.setBorder(BorderFactory.createTitledBorder("Search History"));
+
+        searchPanel.add(new JLabel("Goal:"));
+        searchField = new JTextField(16);
+        searchField.addActionListener(e -> applySearch());
+        searchPanel.add(searchField);
+
+        searchPanel.add(new JLabel("From:"));
+        searchFromField = new JTextField(8);
+        searchFromField.setToolTipText("yyyy-MM-dd");
+        searchFromField.addActionListener(e -> applySearch());
+        searchPanel.add(searchFromField);
+
+        searchPanel.add(new JLabel("To:"));
+        searchToField = new JTextField(8);
+        searchToField.setToolTipText("yyyy-MM-dd");
+        searchToField.addActionListener(e -> applySearch());
+        searchPanel.add(searchToField);
+
+        JButton searchButton = new JButton("Search");
+        searchButton.addActionListener(e -> applySearch());
+        searchPanel.add(searchButton);
+
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> clearSearch());
+        searchPanel.add(clearButton);
+
+        searchResultLabel = new JLabel();
+        searchPanel.add(searchResultLabel);
+        return searchPanel;
+    }
+
+    private void applySearch() {
+        String text = searchField.getText().trim();
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = parseSearchDate(searchFromField);
+            to = parseSearchDate(searchToField);
+        } catch (java.time.format.DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Dates must use the format yyyy-MM-dd.", "Invalid Date", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (text.isEmpty() && from == null && to == null) {
+            clearSearch();
+            return;
+        }
+
+        long started = System.nanoTime();
+        int[] rows = searchIndex.search(text, from, to);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logTableModel.setVisibleRows(rows);
+        searchResultLabel.setText(String.format("%d matches (%d ms)", logTableModel.getRowCount(), elapsedMillis));
+    }
+
+    private static LocalDate parseSearchDate(JTextField field) {
+        String text = field.getText().trim();
+        return text.isEmpty() ? null : LocalDate.parse(text);
+    }
+
+    private void clearSearch() {
+        searchField.setText("");
+        searchFromField.setText("");
+        searchToField.setText("");
+        searchResultLabel.setText("");
+        logTableModel.setVisibleRows(null);
+    }
+
     private void startSession() {
         if (currentTimer != null && currentTimer.isRunning()) {
             JOptionPane.showMessageDialog(this, "A session is already running.", "Timer Active", JOptionPane.INFORMATION_MESSAGE);
@@ -321,9 +522,9 @@ public class PomodoroApp extends JFrame {
         configuration.setGoalDescription(goalDescription);
         configuration.setGoalTargetMinutes((Integer) goalMinutesSpinner.getValue());
 
-        int workMinutes = (Integer) workDurationSpinner.getValue();
-        int breakMinutes = (Integer) breakDurationSpinner.getValue();
-        int intervals = (Integer) intervalsSpinner.getValue();
+        int workMinutes = spinnerValue(workDurationSpinner, configuration.getWorkDurationMinutes());
+        int breakMinutes = spinnerValue(breakDurationSpinner, configuration.getBreakDurationMinutes());
+        int intervals = spinnerValue(intervalsSpinner, configuration.getIntervalsPerSession());
 
         try {
             configuration.setWorkDurationMinutes(workMinutes);
@@ -336,6 +537,8 @@ public class PomodoroApp extends JFrame {
 
         currentTimer = new PomodoroTimer(workMinutes, breakMinutes, intervals);
         currentTimer.addListener(swingTimerListener);
+        sessionEventRecorder.attach(currentTimer);
+        sessionDashboard.addSession(goalDescription, currentTimer);
         activeWorkSeconds = workMinutes * 60L;
         activeBreakSeconds = breakMinutes * 60L;
         lastKnownPhase = PomodoroTimer.Phase.IDLE;
@@ -343,8 +546,7 @@ public class PomodoroApp extends JFrame {
         phaseProgressBar.setValue(0);
         phaseProgressBar.setString("0%");
 
-        Thread timerThread = new Thread(currentTimer, "Pomodoro-Timer");
-        timerThread.start();
+        timerScheduler.start(currentTimer);
         updateControlState();
         statusLabel.setText("Focus time underway. Stay on task!");
     }
@@ -371,6 +573,13 @@ public class PomodoroApp extends JFrame {
         }
     }
 
+    /**
+     * @return the spinner's value, or the configured default while the settings tab is unbuilt
+     */
+    private static int spinnerValue(JSpinner spinner, int defaultValue) {
+        return spinner != null ? (Integer) spinner.getValue() : defaultValue;
+    }
+
     private void applySettings() {
         try {
             configuration.setWorkDurationMinutes((Integer) workDurationSpinner.getValue());
@@ -439,11 +648,7 @@ public class PomodoroApp extends JFrame {
         int completedIntervals = currentTimer.getCompletedIntervals();
 
         if (focusMinutes > 0 || completedIntervals > 0) {
-            try {
-                sessionLogger.appendEntry(configuration.getGoalDescription(), focusMinutes, completedIntervals);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Could not write to the session log: " + ex.getMessage(), "Logging Error", JOptionPane.ERROR_MESSAGE);
-            }
+            appendSessionInBackground(configuration.getGoalDescription(), focusMinutes, completedIntervals);
         }
 
         String message = completed
@@ -451,44 +656,143 @@ public class PomodoroApp extends JFrame {
                 : String.format("Session ended early. You logged %d minutes across %d intervals.", focusMinutes, completedIntervals);
         JOptionPane.showMessageDialog(this, message, "Session Summary", JOptionPane.INFORMATION_MESSAGE);
 
-        refreshStatistics();
         currentTimer.removeListener(swingTimerListener);
         currentTimer = null;
         lastKnownPhase = PomodoroTimer.Phase.IDLE;
         statusLabel.setText("Ready to begin your next focus session.");
         timerDisplayLabel.setText("00:00");
-        intervalsLabel.setText("Intervals: 0 / " + intervalsSpinner.getValue());
+        intervalsLabel.setText("Intervals: 0 / " + spinnerValue(intervalsSpinner, configuration.getIntervalsPerSession()));
         phaseProgressBar.setValue(0);
         phaseProgressBar.setString("0%");
     }
 
-    private void refreshStatistics() {
+    private void appendSessionInBackground(String goalDescription, long focusMinutes, int completedIntervals) {
+        logWriter.execute(() -> {
+            try {
+                sessionLogger.appendEntry(goalDescription, focusMinutes, completedIntervals);
+                SwingUtilities.invokeLater(this::refreshStatistics);
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                        "Could not write to the session log: " + ex.getMessage(), "Logging Error", JOptionPane.ERROR_MESSAGE));
+            }
+        });
+    }
+
+    private void flushPendingWrites() {
+        logWriter.shutdown();
         try {
-            List<SessionLogEntry> entries = sessionLogger.readAllEntries();
-            StatisticsCalculator.WeeklyStatistics weeklyStats = statisticsCalculator.calculateWeeklyStatistics(entries, java.time.LocalDate.now());
+            logWriter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sessionEventRecorder.close();
+        } catch (IOException ex) {
+            System.err.println("Unable to write session events: " + ex.getMessage());
+        }
+        if (logShipper != null) {
+            try {
+                logShipper.close();
+            } catch (IOException ex) {
+                System.err.println("Unable to stop log shipping: " + ex.getMessage());
+            }
+        }
+    }
 
-            totalMinutesLabel.setText(Long.toString(weeklyStats.getTotalMinutes()));
-            totalHoursLabel.setText(String.format("%.2f", weeklyStats.getTotalHours()));
-            sessionsCompletedLabel.setText(Integer.toString(weeklyStats.getSessionsCompleted()));
-            intervalsCompletedLabel.setText(Integer.toString(weeklyStats.getIntervalsCompleted()));
+    /**
+     * Starts loading the log and computing statistics on a worker thread, cancelling any refresh that
+     * is still running since its results would be stale.
+     */
+    private void refreshStatistics() {
+        if (logTableModel == null) {
+            // The statistics tab has not been opened yet; it refreshes when first built.
+            return;
+        }
+        if (refreshWorker != null && !refreshWorker.isDone()) {
+            refreshWorker.cancel(true);
+        }
+        PomodoroConfiguration goal = new PomodoroConfiguration();
+        goal.setGoalDescription(configuration.getGoalDescription());
+        goal.setGoalTargetMinutes(configuration.getGoalTargetMinutes());
+
+        Rectangle visible = logTable.getVisibleRect();
+        int firstVisibleRow = logTable.rowAtPoint(visible.getLocation());
+        int lastVisibleRow = logTable.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (lastVisibleRow < 0) {
+            lastVisibleRow = firstVisibleRow < 0 ? -1 : logTableModel.getRowCount() - 1;
+        }
+        int[] visiblePages = logTableModel.getPages(firstVisibleRow, lastVisibleRow);
 
-            populateLogTable(entries);
-            logLocationLabel.setText("Log file: " + sessionLogger.getLogPath().toAbsolutePath());
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Unable to read the session log: " + ex.getMessage(), "Log Error", JOptionPane.ERROR_MESSAGE);
+        refreshWorker = new StatisticsRefreshWorker(LocalDate.now(), goal, visiblePages);
+        refreshWorker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName()) && event.getSource() == refreshWorker) {
+                refreshProgressBar.setValue((Integer) event.getNewValue());
+            }
+        });
+        refreshProgressBar.setValue(0);
+        refreshProgressBar.setVisible(true);
+        refreshWorker.execute();
+    }
+
+    /**
+     * Compacts the session log on a worker thread. Sessions finished meanwhile are still appended
+     * and kept; the statistics tab reloads once the compacted log is in place.
+     */
+    private void compactLog() {
+        compactButton.setEnabled(false);
+        new SwingWorker<SessionLogger.CompactionResult, Void>() {
+            @Override
+            protected SessionLogger.CompactionResult doInBackground() throws IOException {
+                return sessionLogger.compact();
+            }
+
+            @Override
+            protected void done() {
+                compactButton.setEnabled(true);
+                try {
+                    SessionLogger.CompactionResult result = get();
+                    refreshStatistics();
+                    JOptionPane.showMessageDialog(PomodoroApp.this, String.format(
+                            "Removed %d duplicate rows and reordered %d rows; the log shrank from %d to %d bytes.",
+                            result.getRowsReclaimed(), result.getOutOfOrderRows(), result.getBytesBefore(), result.getBytesAfter()),
+                            "Log Compacted", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(PomodoroApp.this, "Unable to compact the session log: " + ex.getCause().getMessage(),
+                            "Log Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void showStatistics(StatisticsSnapshot snapshot) {
+        StatisticsCalculator.WeeklyStatistics weeklyStats = snapshot.weeklyStatistics;
+        totalMinutesLabel.setText(Long.toString(weeklyStats.getTotalMinutes()));
+        totalHoursLabel.setText(String.format("%.2f", weeklyStats.getTotalHours()));
+        sessionsCompletedLabel.setText(Integer.toString(weeklyStats.getSessionsCompleted()));
+        intervalsCompletedLabel.setText(Integer.toString(weeklyStats.getIntervalsCompleted()));
+        updateAnalytics(snapshot.analytics);
+
+        logTableModel.reload(logPager, snapshot.preloadedPages);
+        if (logTableModel.isFiltered()) {
+            applySearch();
         }
+        logLocationLabel.setText("Log file: " + sessionLogger.getLogPath().toAbsolutePath());
     }
 
-    private void populateLogTable(List<SessionLogEntry> entries) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        logTableModel.setRowCount(0);
-        for (SessionLogEntry entry : entries) {
-            logTableModel.addRow(new Object[] {
-                    entry.getTimestamp().format(formatter),
-                    entry.getGoalDescription(),
-                    entry.getFocusMinutes(),
-                    entry.getIntervalsCompleted()
-            });
+    private void updateAnalytics(AnalyticsReport report) {
+        rollingAverageLabel.setText(String.format("%.0f min / week", report.getRollingAverage().getAverageMinutesPerWeek()));
+
+        AnalyticsReport.Streaks streaks = report.getStreaks();
+        streakLabel.setText(String.format("%d days (best %d)", streaks.getCurrentStreakDays(), streaks.getLongestStreakDays()));
+
+        AnalyticsReport.GoalProgress progress = report.getGoalProgress();
+        if (progress.hasTarget()) {
+            goalProgressLabel.setText(String.format("%d / %d min (%.0f%%)",
+                    progress.getLoggedMinutes(), progress.getTargetMinutes(), progress.getCompletionRatio() * 100));
+        } else {
+            goalProgressLabel.setText("No target set");
         }
     }
 
@@ -501,4 +805,68 @@ public class PomodoroApp extends JFrame {
         resumeButton.setEnabled(running && paused);
         resetButton.setEnabled(running);
     }
+
+    private static final class StatisticsSnapshot {
+        private final StatisticsCalculator.WeeklyStatistics weeklyStatistics;
+        private final AnalyticsReport analytics;
+        private final SessionLogTableModel.PreloadedPages preloadedPages;
+
+        private StatisticsSnapshot(StatisticsCalculator.WeeklyStatistics weeklyStatistics, AnalyticsReport analytics,
+                SessionLogTableModel.PreloadedPages preloadedPages) {
+            this.weeklyStatistics = weeklyStatistics;
+            this.analytics = analytics;
+            this.preloadedPages = preloadedPages;
+        }
+    }
+
+    /**
+     * Reads the log and computes statistics away from the Event Dispatch Thread, then publishes the
+     * results to the statistics tab unless a newer refresh has superseded it. The log pages the table
+     * is showing are read here too, so the reloaded table paints without touching the disk.
+     */
+    private final class StatisticsRefreshWorker extends SwingWorker<StatisticsSnapshot, Void> {
+        private final LocalDate referenceDate;
+        private final PomodoroConfiguration goal;
+        private final int[] visiblePages;
+
+        private StatisticsRefreshWorker(LocalDate referenceDate, PomodoroConfiguration goal, int[] visiblePages) {
+            this.referenceDate = referenceDate;
+            this.goal = goal;
+            this.visiblePages = visiblePages;
+        }
+
+        @Override
+        protected StatisticsSnapshot doInBackground() throws IOException {
+            logPager.refresh();
+            SessionLogTableModel.PreloadedPages preloadedPages = SessionLogTableModel.preload(logPager, visiblePages);
+            searchIndex.catchUp(logPager);
+            setProgress(30);
+            StatisticsCalculator.WeeklyStatistics weeklyStats = statisticsCache.getWeeklyStatistics(referenceDate);
+            setProgress(80);
+            AnalyticsReport report = statisticsCache.getAnalytics(referenceDate, goal, EnumSet.of(
+                    AnalyticsEngine.Metric.ROLLING_AVERAGE,
+                    AnalyticsEngine.Metric.STREAKS,
+                    AnalyticsEngine.Metric.GOAL_PROGRESS));
+            setProgress(100);
+            return new StatisticsSnapshot(weeklyStats, report, preloadedPages);
+        }
+
+        @Override
+        protected void done() {
+            if (this != refreshWorker) {
+                return;
+            }
+            refreshProgressBar.setVisible(false);
+            try {
+                showStatistics(get());
+            } catch (CancellationException ex) {
+                // Superseded by a newer refresh.
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                JOptionPane.showMessageDialog(PomodoroApp.this, "Unable to read the session log: " + cause.getMessage(), "Log Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
 }
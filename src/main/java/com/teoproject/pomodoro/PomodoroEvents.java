@@ -0,0 +1,162 @@
+package com.teoproject.pomodoro;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for the timer, logging and statistics paths. All events are
+ * registered by the JVM on first use and cost little more than an allocation the JIT removes when
+ * no recording has them enabled; fields are only filled in when {@code shouldCommit()} says the
+ * event will be written.
+ *
+ * <p>Record them with any standard tooling, for example
+ * {@code java -XX:StartFlightRecording:filename=pomodoro.jfr,settings=profile -jar pomodoro-app.jar}
+ * and then {@code jfr print --categories Pomodoro pomodoro.jfr}.
+ */
+public final class PomodoroEvents {
+    private static final String CATEGORY = "Pomodoro";
+
+    private PomodoroEvents() {
+    }
+
+    @Name("com.teoproject.pomodoro.TimerTick")
+    @Label("Timer Tick")
+    @Description("One second of a running phase, from the start of the wait to the end of the status update")
+    @Category({CATEGORY, "Timer"})
+    @StackTrace(false)
+    public static final class TimerTick extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Remaining Seconds")
+        int remainingSeconds;
+
+        @Label("Lateness")
+        @Description("How much later than scheduled the tick woke up")
+        @Timespan(Timespan.NANOSECONDS)
+        long lateness;
+    }
+
+    @Name("com.teoproject.pomodoro.PhaseTransition")
+    @Label("Phase Transition")
+    @Category({CATEGORY, "Timer"})
+    @StackTrace(false)
+    public static final class PhaseTransition extends Event {
+        @Label("From Phase")
+        String fromPhase;
+
+        @Label("To Phase")
+        String toPhase;
+
+        @Label("Completed Intervals")
+        int completedIntervals;
+
+        @Label("Intervals Per Session")
+        int intervalsPerSession;
+    }
+
+    @Name("com.teoproject.pomodoro.ListenerDispatch")
+    @Label("Listener Dispatch")
+    @Description("Delivery of one timer callback to every registered listener")
+    @Category({CATEGORY, "Timer"})
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class ListenerDispatch extends Event {
+        @Label("Callback")
+        String callback;
+
+        @Label("Listener Count")
+        int listenerCount;
+
+        @Label("Slowest Listener")
+        String slowestListener;
+
+        @Label("Slowest Listener Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long slowestDuration;
+    }
+
+    @Name("com.teoproject.pomodoro.LogAppend")
+    @Label("Log Append")
+    @Category({CATEGORY, "Session Log"})
+    public static final class LogAppend extends Event {
+        @Label("Log Path")
+        String path;
+
+        @Label("Bytes Written")
+        @DataAmount
+        long bytes;
+
+        @Label("Offset")
+        @Description("Byte offset at which the row was written")
+        long offset;
+    }
+
+    @Name("com.teoproject.pomodoro.LogRead")
+    @Label("Log Read")
+    @Category({CATEGORY, "Session Log"})
+    public static final class LogRead extends Event {
+        @Label("Log Path")
+        String path;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Skipped Rows")
+        @Description("Rows that could not be parsed")
+        int skippedRows;
+
+        @Label("Bytes Read")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.teoproject.pomodoro.LogCompaction")
+    @Label("Log Compaction")
+    @Category({CATEGORY, "Session Log"})
+    public static final class LogCompaction extends Event {
+        @Label("Log Path")
+        String path;
+
+        @Label("Rows Read")
+        long rowsRead;
+
+        @Label("Duplicate Rows Removed")
+        long duplicateRows;
+
+        @Label("Sorted Runs")
+        int runs;
+
+        @Label("Bytes Before")
+        @DataAmount
+        long bytesBefore;
+
+        @Label("Bytes After")
+        @DataAmount
+        long bytesAfter;
+    }
+
+    @Name("com.teoproject.pomodoro.StatisticsComputation")
+    @Label("Statistics Computation")
+    @Category({CATEGORY, "Statistics"})
+    public static final class StatisticsComputation extends Event {
+        @Label("Computation")
+        String computation;
+
+        @Label("Entries Scanned")
+        long entriesScanned;
+
+        @Label("Entries Matched")
+        long entriesMatched;
+    }
+}
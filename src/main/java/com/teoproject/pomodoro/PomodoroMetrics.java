@@ -0,0 +1,435 @@
+package com.teoproject.pomodoro;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Always-on, in-process metrics for the timer, the session log and statistics, published as
+ * platform MXBeans under the {@value #DOMAIN} domain so JConsole, VisualVM or any JMX client can
+ * read them from a running application.
+ *
+ * <p>Recording only touches striped {@link LongAdder}s, so it stays cheap under contention and is
+ * safe to leave enabled in production. Latencies go into fixed power-of-two histograms; reported
+ * percentiles are the upper bound of the bucket they fall in, so they are accurate to within a
+ * factor of two.
+ */
+public final class PomodoroMetrics {
+    public static final String DOMAIN = "com.teoproject.pomodoro";
+
+    public static final TimerMetrics TIMERS = new TimerMetrics();
+    public static final SessionLogMetrics SESSION_LOG = new SessionLogMetrics();
+    public static final StatisticsMetrics STATISTICS = new StatisticsMetrics();
+
+    private static boolean registered;
+
+    private PomodoroMetrics() {
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server. Calling this more than once has no effect.
+     */
+    public static synchronized void registerMBeans() {
+        if (registered) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(TIMERS, new ObjectName(DOMAIN + ":type=Timers"));
+            server.registerMBean(SESSION_LOG, new ObjectName(DOMAIN + ":type=SessionLog"));
+            server.registerMBean(STATISTICS, new ObjectName(DOMAIN + ":type=Statistics"));
+            registered = true;
+        } catch (JMException ex) {
+            System.err.println("Unable to register metrics MBeans: " + ex.getMessage());
+        }
+    }
+
+    public interface TimerMetricsMXBean {
+        long getActiveTimers();
+
+        long getPausedTimers();
+
+        /**
+         * @return fraction of active timers that are paused, between 0 and 1
+         */
+        double getPauseRatio();
+
+        long getSessionsStarted();
+
+        long getSessionsCompleted();
+
+        long getSessionsStopped();
+
+        long getTickCount();
+
+        double getTicksPerSecond();
+
+        double getTickLagMeanMillis();
+
+        double getTickLagP99Millis();
+
+        double getTickLagMaxMillis();
+    }
+
+    public interface SessionLogMetricsMXBean {
+        long getAppendCount();
+
+        double getAppendsPerSecond();
+
+        long getBytesAppended();
+
+        /**
+         * @return size of the log as last observed by an append or a pager refresh, or -1 if unknown
+         */
+        long getLogSizeBytes();
+
+        double getAppendLatencyMeanMillis();
+
+        double getAppendLatencyP99Millis();
+
+        double getAppendLatencyMaxMillis();
+
+        long getReadCount();
+
+        long getRowsRead();
+
+        double getReadLatencyMeanMillis();
+
+        double getReadLatencyP99Millis();
+
+        double getReadLatencyMaxMillis();
+    }
+
+    public interface StatisticsMetricsMXBean {
+        long getComputationCount();
+
+        double getComputeTimeMeanMillis();
+
+        double getComputeTimeP50Millis();
+
+        double getComputeTimeP99Millis();
+
+        double getComputeTimeMaxMillis();
+    }
+
+    public static final class TimerMetrics implements TimerMetricsMXBean {
+        private final LongAdder active = new LongAdder();
+        private final LongAdder paused = new LongAdder();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder stopped = new LongAdder();
+        private final LongAdder ticks = new LongAdder();
+        private final Rate tickRate = new Rate();
+        private final LatencyHistogram tickLag = new LatencyHistogram();
+
+        private TimerMetrics() {
+        }
+
+        void sessionStarted() {
+            started.increment();
+            active.increment();
+        }
+
+        void sessionFinished(boolean wasCompleted, boolean wasPaused) {
+            active.decrement();
+            if (wasPaused) {
+                paused.decrement();
+            }
+            (wasCompleted ? completed : stopped).increment();
+        }
+
+        void paused() {
+            paused.increment();
+        }
+
+        void resumed() {
+            paused.decrement();
+        }
+
+        void tick() {
+            ticks.increment();
+        }
+
+        void tickLag(long lagNanos) {
+            tickLag.record(lagNanos);
+        }
+
+        @Override
+        public long getActiveTimers() {
+            return active.sum();
+        }
+
+        @Override
+        public long getPausedTimers() {
+            return paused.sum();
+        }
+
+        @Override
+        public double getPauseRatio() {
+            long activeCount = active.sum();
+            return activeCount <= 0 ? 0 : Math.min(1.0, (double) paused.sum() / activeCount);
+        }
+
+        @Override
+        public long getSessionsStarted() {
+            return started.sum();
+        }
+
+        @Override
+        public long getSessionsCompleted() {
+            return completed.sum();
+        }
+
+        @Override
+        public long getSessionsStopped() {
+            return stopped.sum();
+        }
+
+        @Override
+        public long getTickCount() {
+            return ticks.sum();
+        }
+
+        @Override
+        public double getTicksPerSecond() {
+            return tickRate.perSecond(ticks.sum());
+        }
+
+        @Override
+        public double getTickLagMeanMillis() {
+            return tickLag.meanMillis();
+        }
+
+        @Override
+        public double getTickLagP99Millis() {
+            return tickLag.percentileMillis(0.99);
+        }
+
+        @Override
+        public double getTickLagMaxMillis() {
+            return tickLag.maxMillis();
+        }
+    }
+
+    public static final class SessionLogMetrics implements SessionLogMetricsMXBean {
+        private final LongAdder appends = new LongAdder();
+        private final Rate appendRate = new Rate();
+        private final LongAdder bytesAppended = new LongAdder();
+        private final LatencyHistogram appendLatency = new LatencyHistogram();
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder rowsRead = new LongAdder();
+        private final LatencyHistogram readLatency = new LatencyHistogram();
+        private volatile long logSize = -1;
+
+        private SessionLogMetrics() {
+        }
+
+        void appended(long bytes, long latencyNanos, long newLogSize) {
+            appends.increment();
+            bytesAppended.add(bytes);
+            appendLatency.record(latencyNanos);
+            logSize = newLogSize;
+        }
+
+        void appendedBatch(int rows, long bytes, long latencyNanos, long newLogSize) {
+            appends.add(rows);
+            bytesAppended.add(bytes);
+            appendLatency.record(latencyNanos);
+            logSize = newLogSize;
+        }
+
+        void read(long rows, long latencyNanos) {
+            reads.increment();
+            rowsRead.add(rows);
+            readLatency.record(latencyNanos);
+        }
+
+        void logSizeObserved(long size) {
+            logSize = size;
+        }
+
+        @Override
+        public long getAppendCount() {
+            return appends.sum();
+        }
+
+        @Override
+        public double getAppendsPerSecond() {
+            return appendRate.perSecond(appends.sum());
+        }
+
+        @Override
+        public long getBytesAppended() {
+            return bytesAppended.sum();
+        }
+
+        @Override
+        public long getLogSizeBytes() {
+            return logSize;
+        }
+
+        @Override
+        public double getAppendLatencyMeanMillis() {
+            return appendLatency.meanMillis();
+        }
+
+        @Override
+        public double getAppendLatencyP99Millis() {
+            return appendLatency.percentileMillis(0.99);
+        }
+
+        @Override
+        public double getAppendLatencyMaxMillis() {
+            return appendLatency.maxMillis();
+        }
+
+        @Override
+        public long getReadCount() {
+            return reads.sum();
+        }
+
+        @Override
+        public long getRowsRead() {
+            return rowsRead.sum();
+        }
+
+        @Override
+        public double getReadLatencyMeanMillis() {
+            return readLatency.meanMillis();
+        }
+
+        @Override
+        public double getReadLatencyP99Millis() {
+            return readLatency.percentileMillis(0.99);
+        }
+
+        @Override
+        public double getReadLatencyMaxMillis() {
+            return readLatency.maxMillis();
+        }
+    }
+
+    public static final class StatisticsMetrics implements StatisticsMetricsMXBean {
+        private final LatencyHistogram computeTime = new LatencyHistogram();
+
+        private StatisticsMetrics() {
+        }
+
+        void computed(long latencyNanos) {
+            computeTime.record(latencyNanos);
+        }
+
+        @Override
+        public long getComputationCount() {
+            return computeTime.count();
+        }
+
+        @Override
+        public double getComputeTimeMeanMillis() {
+            return computeTime.meanMillis();
+        }
+
+        @Override
+        public double getComputeTimeP50Millis() {
+            return computeTime.percentileMillis(0.5);
+        }
+
+        @Override
+        public double getComputeTimeP99Millis() {
+            return computeTime.percentileMillis(0.99);
+        }
+
+        @Override
+        public double getComputeTimeMaxMillis() {
+            return computeTime.maxMillis();
+        }
+    }
+
+    /**
+     * Histogram of nanosecond latencies with one bucket per power of two.
+     */
+    static final class LatencyHistogram {
+        private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+        private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        LatencyHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            // Bucket k holds values in [2^(k-1), 2^k); bucket 0 holds zero.
+            buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double meanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : sum.sum() / (double) n / NANOS_PER_MILLI;
+        }
+
+        double maxMillis() {
+            return max.get() / NANOS_PER_MILLI;
+        }
+
+        double percentileMillis(double quantile) {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long upperBound = i == 0 ? 0 : i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(upperBound, max.get()) / NANOS_PER_MILLI;
+                }
+            }
+            return maxMillis();
+        }
+    }
+
+    /**
+     * Per-second rate of a counter, averaged over the time since the previous reading at least one
+     * second ago.
+     */
+    static final class Rate {
+        private static final long MIN_WINDOW_NANOS = 1_000_000_000L;
+
+        private long lastCount;
+        private long lastNanos = System.nanoTime();
+        private double lastRate;
+
+        synchronized double perSecond(long currentCount) {
+            long now = System.nanoTime();
+            long elapsed = now - lastNanos;
+            if (elapsed >= MIN_WINDOW_NANOS) {
+                lastRate = (currentCount - lastCount) * 1e9 / elapsed;
+                lastCount = currentCount;
+                lastNanos = now;
+            }
+            return lastRate;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.teoproject.pomodoro;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Headless command-line entry point that writes range statistics for one or more session logs as
+ * CSV or JSON. Each log is streamed once and aggregated into fixed buckets, so memory stays bounded
+ * by the number of buckets regardless of log size. No AWT or Swing classes are loaded.
+ *
+ * <pre>
+ * java -cp pomodoro-app-1.0.0.jar com.teoproject.pomodoro.PomodoroReport \
+ *     --from 2024-01-01 --to 2024-02-01 [--granularity day] [--format csv|json]
+ *     [--zone Europe/Berlin] [--log-zone UTC] [--week-start MONDAY] [--total-only]
+ *     [--output report.csv] session_log.csv [more logs...]
+ * </pre>
+ */
+public final class PomodoroReport {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final String TOTAL_SOURCE = "*";
+
+    private final TimeRangeQuery query;
+    private final boolean json;
+    private final boolean totalOnly;
+
+    PomodoroReport(TimeRangeQuery query, boolean json, boolean totalOnly) {
+        this.query = query;
+        this.json = json;
+        this.totalOnly = totalOnly;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Options options;
+        TimeRangeQuery query;
+        try {
+            options = Options.parse(args);
+            query = options.toQuery();
+        } catch (IllegalArgumentException | java.time.DateTimeException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.err.println(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        PomodoroReport report = new PomodoroReport(query, options.json, options.totalOnly);
+        boolean ok;
+        try (Writer out = options.output == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(options.output, StandardCharsets.UTF_8)) {
+            ok = report.write(options.logs, out);
+        } catch (IOException ex) {
+            System.err.println("Error: could not write report: " + ex.getMessage());
+            System.exit(1);
+            return;
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Streams every log and writes one series per log plus a combined series.
+     *
+     * @return {@code false} if any log could not be read; the remaining logs are still reported
+     */
+    boolean write(List<Path> logs, Writer out) throws IOException {
+        boolean ok = true;
+        StatisticsCalculator.TimeSeriesAggregator total = new StatisticsCalculator.TimeSeriesAggregator(query);
+        begin(out);
+        boolean first = true;
+        for (Path log : logs) {
+            if (!Files.isRegularFile(log)) {
+                System.err.println("Skipping missing log " + log);
+                ok = false;
+                continue;
+            }
+            StatisticsCalculator.TimeSeriesAggregator perLog = new StatisticsCalculator.TimeSeriesAggregator(query);
+            try (Stream<SessionLogEntry> entries = new SessionLogger(log).streamEntries()) {
+                entries.forEach(entry -> {
+                    if (perLog.accept(entry)) {
+                        total.accept(entry);
+                    }
+                });
+            } catch (IOException | UncheckedIOException ex) {
+                System.err.println("Skipping unreadable log " + log + ": " + ex.getMessage());
+                ok = false;
+                continue;
+            }
+            if (!totalOnly) {
+                writeSeries(out, log.toString(), perLog.toTimeSeries(), first);
+                first = false;
+            }
+        }
+        writeSeries(out, TOTAL_SOURCE, total.toTimeSeries(), first);
+        end(out);
+        return ok;
+    }
+
+    private void begin(Writer out) throws IOException {
+        if (json) {
+            out.write("{\"from\":\"" + TIME_FORMATTER.format(query.getFrom())
+                    + "\",\"to\":\"" + TIME_FORMATTER.format(query.getTo())
+                    + "\",\"granularity\":\"" + query.getGranularity().name().toLowerCase(Locale.ROOT)
+                    + "\",\"series\":[");
+        } else {
+            out.write("source,bucket_start,bucket_end,total_minutes,sessions_completed,intervals_completed\n");
+        }
+    }
+
+    private void writeSeries(Writer out, String source, StatisticsCalculator.TimeSeries series, boolean first) throws IOException {
+        if (json) {
+            out.write(first ? "" : ",");
+            out.write("{\"source\":" + jsonString(source)
+                    + ",\"total_minutes\":" + series.getTotalMinutes()
+                    + ",\"sessions_completed\":" + series.getSessionsCompleted()
+                    + ",\"buckets\":[");
+            boolean firstBucket = true;
+            for (StatisticsCalculator.Bucket bucket : series.getBuckets()) {
+                out.write(firstBucket ? "" : ",");
+                out.write("{\"start\":\"" + TIME_FORMATTER.format(bucket.getStart())
+                        + "\",\"end\":\"" + TIME_FORMATTER.format(bucket.getEnd())
+                        + "\",\"total_minutes\":" + bucket.getTotalMinutes()
+                        + ",\"sessions_completed\":" + bucket.getSessionsCompleted()
+                        + ",\"intervals_completed\":" + bucket.getIntervalsCompleted() + "}");
+                firstBucket = false;
+            }
+            out.write("]}");
+        } else {
+            for (StatisticsCalculator.Bucket bucket : series.getBuckets()) {
+                out.write(csvField(source) + ","
+                        + TIME_FORMATTER.format(bucket.getStart()) + ","
+                        + TIME_FORMATTER.format(bucket.getEnd()) + ","
+                        + bucket.getTotalMinutes() + ","
+                        + bucket.getSessionsCompleted() + ","
+                        + bucket.getIntervalsCompleted() + "\n");
+            }
+        }
+    }
+
+    private void end(Writer out) throws IOException {
+        if (json) {
+            out.write("]}\n");
+        }
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    static String jsonString(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        builder.append(ch);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static final class Options {
+        private static final String USAGE = "Usage: PomodoroReport --from yyyy-MM-dd --to yyyy-MM-dd"
+                + " [--granularity hour|day|week|month] [--format csv|json] [--zone ZONE] [--log-zone ZONE]"
+                + " [--week-start DAY] [--total-only] [--output FILE] LOG...";
+
+        private LocalDate from;
+        private LocalDate to;
+        private TimeRangeQuery.Granularity granularity = TimeRangeQuery.Granularity.DAY;
+        private boolean json;
+        private boolean totalOnly;
+        private ZoneId zone = ZoneId.systemDefault();
+        private ZoneId logZone = ZoneId.systemDefault();
+        private DayOfWeek weekStart = DayOfWeek.MONDAY;
+        private Path output;
+        private final List<Path> logs = new ArrayList<>();
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    options.logs.add(Paths.get(arg));
+                    continue;
+                }
+                if (arg.equals("--total-only")) {
+                    options.totalOnly = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--from" -> options.from = LocalDate.parse(value);
+                    case "--to" -> options.to = LocalDate.parse(value);
+                    case "--granularity" -> options.granularity = TimeRangeQuery.Granularity.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--format" -> options.json = parseFormat(value);
+                    case "--zone" -> options.zone = ZoneId.of(value);
+                    case "--log-zone" -> options.logZone = ZoneId.of(value);
+                    case "--week-start" -> options.weekStart = DayOfWeek.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--output" -> options.output = Paths.get(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            if (options.from == null || options.to == null) {
+                throw new IllegalArgumentException("--from and --to are required.");
+            }
+            if (options.logs.isEmpty()) {
+                throw new IllegalArgumentException("At least one log file is required.");
+            }
+            return options;
+        }
+
+        private static boolean parseFormat(String value) {
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "json" -> true;
+                case "csv" -> false;
+                default -> throw new IllegalArgumentException("Unknown format " + value);
+            };
+        }
+
+        private TimeRangeQuery toQuery() {
+            return new TimeRangeQuery(from.atStartOfDay(zone), to.atStartOfDay(zone), granularity,
+                    WeekFields.of(weekStart, 1), logZone);
+        }
+    }
+}
@@ -2,11 +2,13 @@ package com.teoproject.pomodoro;
 
 import java.time.Duration;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Controls the execution of a Pomodoro session by managing alternating work and break periods.
  * The timer runs on its own thread so the user interface can issue commands such as pause, resume,
- * and reset while a session is active.
+ * and reset while a session is active. Alternatively, a {@link VirtualTimeScheduler} can drive many
+ * timers on simulated time, with no threads and no waiting.
  */
 public class PomodoroTimer implements Runnable {
     public enum Phase {
@@ -16,6 +18,8 @@ public class PomodoroTimer implements Runnable {
         IDLE
     }
 
+    private static final long TICK_NANOS = 1_000_000_000L;
+
     private final Object lock = new Object();
     private final int workDurationMinutes;
     private final int breakDurationMinutes;
@@ -49,95 +53,168 @@ public class PomodoroTimer implements Runnable {
         listeners.remove(listener);
     }
 
+    /**
+     * Runs the whole session on the calling thread, ticking once per second of real time. Ticks are
+     * scheduled against absolute deadlines, so time spent in listeners does not accumulate as drift.
+     * This is what {@link TimerScheduler#REAL_TIME} runs on a new thread; a
+     * {@link VirtualTimeScheduler} drives the timer on simulated time instead.
+     */
     @Override
     public void run() {
-        running = true;
-        stopRequested = false;
-        completed = false;
-        completedIntervals = 0;
-        totalFocusSeconds = 0;
-
+        start();
+        long nextTick = System.nanoTime() + TICK_NANOS;
         try {
-            for (int i = 0; i < intervalsPerSession && !stopRequested; i++) {
-                if (!runPhase(workDurationMinutes * 60, Phase.WORK)) {
-                    finish(false);
-                    return;
-                }
-
-                if (stopRequested) {
-                    finish(false);
-                    return;
+            while (running) {
+                synchronized (lock) {
+                    if (stopRequested) {
+                        break;
+                    }
+                    if (paused) {
+                        while (paused && !stopRequested) {
+                            lock.wait();
+                        }
+                        if (stopRequested) {
+                            // Stopped while paused: finish now rather than after another second.
+                            break;
+                        }
+                        // The second under way when the timer was paused has already been counted;
+                        // the next one starts from the moment of resuming.
+                        nextTick = System.nanoTime() + TICK_NANOS;
+                    }
                 }
 
-                if (i < intervalsPerSession - 1) {
-                    if (!runPhase(breakDurationMinutes * 60, Phase.BREAK)) {
-                        finish(false);
-                        return;
-                    }
+                PomodoroEvents.TimerTick event = new PomodoroEvents.TimerTick();
+                event.begin();
+                sleepUntil(nextTick);
+                long lateness = System.nanoTime() - nextTick;
+                nextTick += TICK_NANOS;
+                PomodoroMetrics.TIMERS.tickLag(lateness);
+                tick();
+                event.end();
+                if (event.shouldCommit()) {
+                    TimerStatus status = getStatus();
+                    event.phase = status.getPhase().name();
+                    event.remainingSeconds = (int) status.getRemaining().getSeconds();
+                    event.lateness = Math.max(0, lateness);
+                    event.commit();
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
-            if (!stopRequested && completedIntervals == intervalsPerSession) {
-                finish(true);
-            } else if (stopRequested) {
+            if (running) {
                 finish(false);
             }
         }
     }
 
-    private boolean runPhase(int totalSeconds, Phase phase) {
-        synchronized (lock) {
-            currentPhase = phase;
-            remainingSeconds = totalSeconds;
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
         }
+    }
 
-        notifyStatusChanged();
-
-        while (remainingSeconds > 0) {
-            synchronized (lock) {
-                if (stopRequested) {
-                    return false;
-                }
-                while (paused && !stopRequested) {
-                    try {
-                        lock.wait();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return false;
-                    }
-                }
-                if (stopRequested) {
-                    return false;
-                }
-            }
+    /**
+     * Begins the session: resets progress and enters the first work phase. Used by {@link #run()}
+     * and by {@link VirtualTimeScheduler}, which then call {@link #tick()} once per second.
+     */
+    void start() {
+        synchronized (lock) {
+            running = true;
+            paused = false;
+            stopRequested = false;
+            completed = false;
+            completedIntervals = 0;
+            totalFocusSeconds = 0;
+        }
+        PomodoroMetrics.TIMERS.sessionStarted();
+        if (intervalsPerSession <= 0) {
+            finish(true);
+            return;
+        }
+        enterPhase(Phase.WORK, workDurationMinutes * 60);
+    }
 
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    /**
+     * Advances the session by one second; a timer whose stop was requested finishes instead. The
+     * second is counted even if the timer was paused while it was under way: pausing stops the
+     * countdown after the current second, and the caller must not start another one until
+     * {@link #resume()}.
+     *
+     * @return {@code true} while the session is still running
+     */
+    boolean tick() {
+        Phase phase;
+        boolean phaseEnded;
+        synchronized (lock) {
+            if (!running) {
                 return false;
             }
-
-            synchronized (lock) {
+            phase = currentPhase;
+            if (!stopRequested) {
                 remainingSeconds--;
                 if (phase == Phase.WORK) {
                     totalFocusSeconds++;
                 }
             }
+            phaseEnded = remainingSeconds <= 0;
+        }
 
-            notifyStatusChanged();
+        if (stopRequested) {
+            finish(false);
+            return false;
+        }
+        PomodoroMetrics.TIMERS.tick();
+        notifyStatusChanged();
+        if (phaseEnded) {
+            endPhase(phase);
+        }
+        return running;
+    }
+
+    private void enterPhase(Phase phase, int totalSeconds) {
+        Phase previous;
+        synchronized (lock) {
+            previous = currentPhase;
+            currentPhase = phase;
+            remainingSeconds = totalSeconds;
         }
 
-        if (phase == Phase.WORK) {
-            completedIntervals++;
-            notifyStatusChanged();
+        recordPhaseTransition(previous, phase);
+        notifyStatusChanged();
+        if (totalSeconds <= 0) {
+            endPhase(phase);
         }
+    }
 
-        return true;
+    private void endPhase(Phase phase) {
+        if (phase != Phase.WORK) {
+            enterPhase(Phase.WORK, workDurationMinutes * 60);
+            return;
+        }
+        synchronized (lock) {
+            completedIntervals++;
+        }
+        notifyStatusChanged();
+        if (completedIntervals >= intervalsPerSession) {
+            finish(true);
+        } else if (stopRequested) {
+            finish(false);
+        } else {
+            enterPhase(Phase.BREAK, breakDurationMinutes * 60);
+        }
     }
 
     private void finish(boolean wasCompleted) {
+        Phase previous;
+        boolean wasPaused;
         synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            previous = currentPhase;
+            wasPaused = paused;
             running = false;
             paused = false;
             completed = wasCompleted;
@@ -146,16 +223,30 @@ public class PomodoroTimer implements Runnable {
             lock.notifyAll();
         }
 
+        PomodoroMetrics.TIMERS.sessionFinished(wasCompleted, wasPaused);
+        recordPhaseTransition(previous, Phase.COMPLETE);
         notifyStatusChanged();
         notifySessionFinished(completed);
     }
 
+    private void recordPhaseTransition(Phase from, Phase to) {
+        PomodoroEvents.PhaseTransition event = new PomodoroEvents.PhaseTransition();
+        if (event.shouldCommit()) {
+            event.fromPhase = from.name();
+            event.toPhase = to.name();
+            event.completedIntervals = completedIntervals;
+            event.intervalsPerSession = intervalsPerSession;
+            event.commit();
+        }
+    }
+
     public void pause() {
         boolean changed = false;
         synchronized (lock) {
             if (running && !paused) {
                 paused = true;
                 changed = true;
+                PomodoroMetrics.TIMERS.paused();
             }
         }
         if (changed) {
@@ -170,6 +261,7 @@ public class PomodoroTimer implements Runnable {
                 paused = false;
                 lock.notifyAll();
                 changed = true;
+                PomodoroMetrics.TIMERS.resumed();
             }
         }
         if (changed) {
@@ -181,6 +273,9 @@ public class PomodoroTimer implements Runnable {
         boolean changed;
         synchronized (lock) {
             stopRequested = true;
+            if (running && paused) {
+                PomodoroMetrics.TIMERS.resumed();
+            }
             paused = false;
             lock.notifyAll();
             changed = running;
@@ -199,6 +294,10 @@ public class PomodoroTimer implements Runnable {
         return paused;
     }
 
+    boolean isStopRequested() {
+        return stopRequested;
+    }
+
     public boolean isCompleted() {
         return completed;
     }
@@ -214,16 +313,56 @@ public class PomodoroTimer implements Runnable {
         return completedIntervals;
     }
 
-    private void notifyStatusChanged() {
+    void notifyStatusChanged() {
         TimerStatus status = getStatus();
-        for (PomodoroTimerListener listener : listeners) {
-            listener.onStatusUpdate(status);
+        PomodoroEvents.ListenerDispatch dispatch = new PomodoroEvents.ListenerDispatch();
+        if (!dispatch.isEnabled()) {
+            for (PomodoroTimerListener listener : listeners) {
+                listener.onStatusUpdate(status);
+            }
+            return;
         }
+        dispatchRecorded(dispatch, "onStatusUpdate", listener -> listener.onStatusUpdate(status));
     }
 
     private void notifySessionFinished(boolean completedSession) {
+        PomodoroEvents.ListenerDispatch dispatch = new PomodoroEvents.ListenerDispatch();
+        if (!dispatch.isEnabled()) {
+            for (PomodoroTimerListener listener : listeners) {
+                listener.onSessionFinished(completedSession);
+            }
+            return;
+        }
+        dispatchRecorded(dispatch, "onSessionFinished", listener -> listener.onSessionFinished(completedSession));
+    }
+
+    /**
+     * Delivers a callback while a flight recording is capturing dispatches, timing each listener so
+     * the slowest one can be named.
+     */
+    private void dispatchRecorded(PomodoroEvents.ListenerDispatch dispatch, String callback,
+                                  Consumer<PomodoroTimerListener> call) {
+        dispatch.begin();
+        int count = 0;
+        PomodoroTimerListener slowest = null;
+        long slowestNanos = -1;
         for (PomodoroTimerListener listener : listeners) {
-            listener.onSessionFinished(completedSession);
+            long start = System.nanoTime();
+            call.accept(listener);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > slowestNanos) {
+                slowest = listener;
+                slowestNanos = elapsed;
+            }
+            count++;
+        }
+        dispatch.end();
+        if (dispatch.shouldCommit()) {
+            dispatch.callback = callback;
+            dispatch.listenerCount = count;
+            dispatch.slowestListener = slowest == null ? null : slowest.getClass().getName();
+            dispatch.slowestDuration = Math.max(0, slowestNanos);
+            dispatch.commit();
         }
     }
 
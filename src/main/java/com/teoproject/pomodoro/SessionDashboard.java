@@ -0,0 +1,417 @@
+package com.teoproject.pomodoro;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.HierarchyEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+
+/**
+ * Overview of many live sessions at once, such as every student in a study hall. Sessions are
+ * drawn as cells of one custom-painted grid rather than as components, and a single Swing timer
+ * polls each {@link PomodoroTimer#getStatus()} snapshot a few times per second. Only cells whose
+ * snapshot changed and that are on screen are repainted, and painting touches only cached values,
+ * so the view stays smooth with thousands of sessions. Polling stops while the dashboard is hidden.
+ *
+ * <p>Sessions are added and removed on the Event Dispatch Thread.
+ */
+public class SessionDashboard extends JPanel {
+    private static final int REFRESH_MILLIS = 250;
+
+    private final Grid grid = new Grid();
+    private final JLabel summaryLabel = new JLabel(" ");
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> poll());
+    private String lastSummary = "";
+
+    public SessionDashboard() {
+        super(new BorderLayout(8, 8));
+        setBorder(new EmptyBorder(12, 12, 12, 12));
+
+        JButton clearButton = new JButton("Clear Finished");
+        clearButton.addActionListener(e -> removeFinishedSessions());
+        JPanel header = new JPanel(new BorderLayout(8, 0));
+        header.add(summaryLabel, BorderLayout.CENTER);
+        header.add(clearButton, BorderLayout.EAST);
+        add(header, BorderLayout.NORTH);
+
+        JScrollPane scrollPane = new JScrollPane(grid);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(Grid.CELL_HEIGHT / 2);
+        add(scrollPane, BorderLayout.CENTER);
+
+        refreshTimer.setCoalesce(true);
+        addHierarchyListener(event -> {
+            if ((event.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                if (isShowing()) {
+                    poll();
+                    refreshTimer.start();
+                } else {
+                    refreshTimer.stop();
+                }
+            }
+        });
+        updateSummary();
+    }
+
+    public void addSession(String label, PomodoroTimer timer) {
+        grid.cells.add(new Cell(label, timer));
+        grid.layoutChanged();
+        updateSummary();
+    }
+
+    public void removeSession(PomodoroTimer timer) {
+        if (grid.cells.removeIf(cell -> cell.timer == timer)) {
+            grid.layoutChanged();
+            updateSummary();
+        }
+    }
+
+    public void removeFinishedSessions() {
+        if (grid.cells.removeIf(cell -> cell.phase == PomodoroTimer.Phase.COMPLETE)) {
+            grid.layoutChanged();
+            updateSummary();
+        }
+    }
+
+    public int getSessionCount() {
+        return grid.cells.size();
+    }
+
+    private void poll() {
+        Rectangle visible = grid.getVisibleRect();
+        List<Cell> cells = grid.cells;
+        for (int i = 0; i < cells.size(); i++) {
+            if (cells.get(i).update() && !visible.isEmpty()) {
+                Rectangle bounds = grid.cellBounds(i);
+                if (bounds.intersects(visible)) {
+                    grid.repaint(bounds);
+                }
+            }
+        }
+        updateSummary();
+    }
+
+    private void updateSummary() {
+        int working = 0;
+        int onBreak = 0;
+        int paused = 0;
+        int finished = 0;
+        for (Cell cell : grid.cells) {
+            if (cell.phase == PomodoroTimer.Phase.COMPLETE) {
+                finished++;
+            } else if (cell.paused) {
+                paused++;
+            } else if (cell.phase == PomodoroTimer.Phase.WORK) {
+                working++;
+            } else if (cell.phase == PomodoroTimer.Phase.BREAK) {
+                onBreak++;
+            }
+        }
+        String summary = String.format("%d sessions: %d focusing, %d on break, %d paused, %d finished",
+                grid.cells.size(), working, onBreak, paused, finished);
+        if (!summary.equals(lastSummary)) {
+            summaryLabel.setText(summary);
+            lastSummary = summary;
+        }
+    }
+
+    /**
+     * Last polled state of one session; painting reads only these fields.
+     */
+    private static final class Cell {
+        private final String label;
+        private final PomodoroTimer timer;
+        private PomodoroTimer.Phase phase;
+        private long remainingSeconds = -1;
+        private int completedIntervals;
+        private int intervalsPerSession;
+        private boolean paused;
+
+        private Cell(String label, PomodoroTimer timer) {
+            this.label = label;
+            this.timer = timer;
+        }
+
+        /**
+         * @return {@code true} if the visible state changed since the last poll
+         */
+        private boolean update() {
+            PomodoroTimer.TimerStatus status = timer.getStatus();
+            long remaining = status.getRemaining().getSeconds();
+            if (status.getPhase() == phase && remaining == remainingSeconds && status.isPaused() == paused
+                    && status.getCompletedIntervals() == completedIntervals) {
+                return false;
+            }
+            phase = status.getPhase();
+            remainingSeconds = remaining;
+            paused = status.isPaused();
+            completedIntervals = status.getCompletedIntervals();
+            intervalsPerSession = status.getIntervalsPerSession();
+            return true;
+        }
+    }
+
+    private static final class Grid extends JComponent implements Scrollable {
+        private static final int CELL_WIDTH = 172;
+        private static final int CELL_HEIGHT = 60;
+        private static final int GAP = 6;
+        private static final Color WORK_COLOR = new Color(0xF8D7D3);
+        private static final Color BREAK_COLOR = new Color(0xD5EFD9);
+        private static final Color PAUSED_COLOR = new Color(0xF4E9C1);
+        private static final Color COMPLETE_COLOR = new Color(0xDCE6F2);
+        private static final Color IDLE_COLOR = new Color(0xEEEEEE);
+        private static final Color BORDER_COLOR = new Color(0xB0B0B0);
+
+        private final List<Cell> cells = new ArrayList<>();
+        private final Font labelFont = new Font(Font.SANS_SERIF, Font.PLAIN, 11);
+        private final Font timeFont = new Font(Font.MONOSPACED, Font.BOLD, 20);
+        private final char[] timeChars = new char[8];
+
+        private Grid() {
+            setOpaque(true);
+            setBackground(Color.WHITE);
+        }
+
+        private void layoutChanged() {
+            revalidate();
+            repaint();
+        }
+
+        private int columns() {
+            return Math.max(1, (getWidth() - GAP) / (CELL_WIDTH + GAP));
+        }
+
+        private Rectangle cellBounds(int index) {
+            int columns = columns();
+            int x = GAP + (index % columns) * (CELL_WIDTH + GAP);
+            int y = GAP + (index / columns) * (CELL_HEIGHT + GAP);
+            return new Rectangle(x, y, CELL_WIDTH, CELL_HEIGHT);
+        }
+
+        @Override
+        protected void paintComponent(Graphics graphics) {
+            Graphics2D g = (Graphics2D) graphics;
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            // Only rows that intersect the clip are visited, however many sessions there are.
+            int columns = columns();
+            int rowHeight = CELL_HEIGHT + GAP;
+            int firstRow = Math.max(0, (clip.y - GAP) / rowHeight);
+            int lastRow = (clip.y + clip.height) / rowHeight;
+            int first = firstRow * columns;
+            int last = Math.min(cells.size() - 1, (lastRow + 1) * columns - 1);
+            for (int i = first; i <= last; i++) {
+                Rectangle bounds = cellBounds(i);
+                if (bounds.intersects(clip)) {
+                    paintCell(g, cells.get(i), bounds);
+                }
+            }
+        }
+
+        private void paintCell(Graphics2D g, Cell cell, Rectangle bounds) {
+            g.setColor(background(cell));
+            g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+            g.setColor(BORDER_COLOR);
+            g.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+
+            g.setColor(Color.DARK_GRAY);
+            g.setFont(labelFont);
+            FontMetrics labelMetrics = g.getFontMetrics();
+            g.drawString(clipText(cell.label, labelMetrics, bounds.width - 12), bounds.x + 6, bounds.y + 4 + labelMetrics.getAscent());
+            String state = stateText(cell);
+            g.drawString(state, bounds.x + bounds.width - 6 - labelMetrics.stringWidth(state),
+                    bounds.y + bounds.height - 6);
+
+            g.setColor(Color.BLACK);
+            g.setFont(timeFont);
+            int length = formatTime(cell.remainingSeconds);
+            g.drawChars(timeChars, 0, length, bounds.x + 6, bounds.y + bounds.height - 8);
+
+            int dotX = bounds.x + bounds.width - 6;
+            int dotY = bounds.y + 22;
+            for (int i = Math.min(cell.intervalsPerSession, 12) - 1; i >= 0; i--) {
+                dotX -= 9;
+                if (i < cell.completedIntervals) {
+                    g.fillOval(dotX, dotY, 7, 7);
+                } else {
+                    g.drawOval(dotX, dotY, 6, 6);
+                }
+            }
+        }
+
+        private static Color background(Cell cell) {
+            if (cell.phase == null) {
+                return IDLE_COLOR;
+            }
+            if (cell.paused && cell.phase != PomodoroTimer.Phase.COMPLETE) {
+                return PAUSED_COLOR;
+            }
+            return switch (cell.phase) {
+                case WORK -> WORK_COLOR;
+                case BREAK -> BREAK_COLOR;
+                case COMPLETE -> COMPLETE_COLOR;
+                case IDLE -> IDLE_COLOR;
+            };
+        }
+
+        private static String stateText(Cell cell) {
+            if (cell.phase == null) {
+                return "";
+            }
+            if (cell.paused && cell.phase != PomodoroTimer.Phase.COMPLETE) {
+                return "Paused";
+            }
+            return switch (cell.phase) {
+                case WORK -> "Focus";
+                case BREAK -> "Break";
+                case COMPLETE -> "Finished";
+                case IDLE -> "Idle";
+            };
+        }
+
+        /**
+         * Writes {@code mm:ss} (or {@code hh:mm:ss}) into {@link #timeChars} without allocating.
+         */
+        private int formatTime(long totalSeconds) {
+            long seconds = Math.max(0, totalSeconds);
+            long hours = seconds / 3600;
+            int length = 0;
+            if (hours > 0) {
+                timeChars[length++] = (char) ('0' + Math.min(9, hours / 10));
+                timeChars[length++] = (char) ('0' + hours % 10);
+                timeChars[length++] = ':';
+            }
+            long minutes = (seconds / 60) % 60;
+            timeChars[length++] = (char) ('0' + minutes / 10);
+            timeChars[length++] = (char) ('0' + minutes % 10);
+            timeChars[length++] = ':';
+            timeChars[length++] = (char) ('0' + (seconds % 60) / 10);
+            timeChars[length++] = (char) ('0' + seconds % 10);
+            return length;
+        }
+
+        private static String clipText(String text, FontMetrics metrics, int width) {
+            if (metrics.stringWidth(text) <= width) {
+                return text;
+            }
+            int end = text.length();
+            while (end > 0 && metrics.stringWidth(text.substring(0, end)) + metrics.stringWidth("...") > width) {
+                end--;
+            }
+            return text.substring(0, end) + "...";
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            int width = getParent() != null ? getParent().getWidth() : 4 * (CELL_WIDTH + GAP) + GAP;
+            int columns = Math.max(1, (width - GAP) / (CELL_WIDTH + GAP));
+            int rows = (cells.size() + columns - 1) / columns;
+            return new Dimension(CELL_WIDTH + 2 * GAP, GAP + rows * (CELL_HEIGHT + GAP));
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return new Dimension(4 * (CELL_WIDTH + GAP) + GAP, 4 * (CELL_HEIGHT + GAP) + GAP);
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL ? (CELL_HEIGHT + GAP) / 2 : GAP;
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return true;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return false;
+        }
+
+        @Override
+        public void setBounds(int x, int y, int width, int height) {
+            boolean widthChanged = width != getWidth();
+            super.setBounds(x, y, width, height);
+            if (widthChanged) {
+                // The number of columns follows the width, and with it the height the grid needs.
+                revalidate();
+            }
+        }
+    }
+
+    /**
+     * Opens a dashboard of simulated sessions running in real time, for trying the view at scale:
+     * {@code java -cp pomodoro-app.jar com.teoproject.pomodoro.SessionDashboard [sessions]}.
+     */
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+        List<PomodoroTimer> timers = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            PomodoroTimer timer = new PomodoroTimer(25, 5, 4);
+            timers.add(timer);
+            // Staggered starts and occasional pauses so the grid shows every state.
+            scheduler.start(timer, Duration.ofSeconds(i % 1500));
+            if (i % 7 == 0) {
+                scheduler.schedule(Duration.ofSeconds(1500 + i % 600), timer::pause);
+                scheduler.schedule(Duration.ofSeconds(1800 + i % 600), timer::resume);
+            }
+        }
+        // Skip ahead so the grid opens mid-session. This finishes before the clock thread below
+        // exists, because the scheduler is not thread-safe and from then on only that thread may
+        // touch it, advancing it in step with real time.
+        scheduler.advanceBy(Duration.ofMinutes(20));
+        ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Pomodoro-Dashboard-Simulation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        clock.scheduleAtFixedRate(() -> scheduler.advanceBy(Duration.ofSeconds(1)), 1, 1, TimeUnit.SECONDS);
+
+        SwingUtilities.invokeLater(() -> {
+            SessionDashboard dashboard = new SessionDashboard();
+            for (int i = 0; i < timers.size(); i++) {
+                dashboard.addSession("Student " + (i + 1), timers.get(i));
+            }
+            JFrame frame = new JFrame("Session Dashboard");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.getContentPane().add(dashboard);
+            frame.setSize(1100, 760);
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+        });
+    }
+}
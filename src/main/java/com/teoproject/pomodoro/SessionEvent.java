@@ -0,0 +1,65 @@
+package com.teoproject.pomodoro;
+
+import java.time.Instant;
+
+/**
+ * A single control or phase event of a timer session, as recorded by {@link SessionEventRecorder}.
+ */
+public class SessionEvent {
+    public enum Type {
+        START,
+        PAUSE,
+        RESUME,
+        PHASE_CHANGE,
+        STOP,
+        COMPLETE
+    }
+
+    private final long timestampMillis;
+    private final long sessionId;
+    private final Type type;
+    private final PomodoroTimer.Phase phase;
+    private final int remainingSeconds;
+    private final int completedIntervals;
+
+    public SessionEvent(long timestampMillis, long sessionId, Type type, PomodoroTimer.Phase phase,
+                        int remainingSeconds, int completedIntervals) {
+        this.timestampMillis = timestampMillis;
+        this.sessionId = sessionId;
+        this.type = type;
+        this.phase = phase;
+        this.remainingSeconds = remainingSeconds;
+        this.completedIntervals = completedIntervals;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(timestampMillis);
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the phase the timer was in when the event happened; for phase changes, the new phase
+     */
+    public PomodoroTimer.Phase getPhase() {
+        return phase;
+    }
+
+    public int getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    public int getCompletedIntervals() {
+        return completedIntervals;
+    }
+}
@@ -0,0 +1,237 @@
+package com.teoproject.pomodoro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of the session event log and the replay API that turns it back into timelines.
+ *
+ * <p>The file starts with a five-byte header (the magic number {@code PMEV} and a version byte)
+ * followed by fixed-size big-endian records: timestamp millis (8), session id (8), event type (1),
+ * phase (1), remaining seconds (4) and completed intervals (4). A record cut short by a crash at the
+ * end of the file is ignored.
+ */
+public final class SessionEventLog {
+    static final int MAGIC = 0x504D4556;
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 5;
+    static final int RECORD_SIZE = 26;
+
+    private static final int READ_BUFFER_RECORDS = 4096;
+    private static final SessionEvent.Type[] TYPES = SessionEvent.Type.values();
+    private static final PomodoroTimer.Phase[] PHASES = PomodoroTimer.Phase.values();
+
+    private SessionEventLog() {
+    }
+
+    static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC).put(VERSION);
+    }
+
+    static void readHeader(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException(path + " is not a session event log.");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException(path + " has unsupported event log version " + version + ".");
+        }
+    }
+
+    static void writeRecord(ByteBuffer buffer, long timestampMillis, long sessionId, int type, int phase,
+                            int remainingSeconds, int completedIntervals) {
+        buffer.putLong(timestampMillis)
+                .putLong(sessionId)
+                .put((byte) type)
+                .put((byte) phase)
+                .putInt(remainingSeconds)
+                .putInt(completedIntervals);
+    }
+
+    /**
+     * Reads every complete event in the file, in the order it was recorded.
+     */
+    public static List<SessionEvent> readEvents(Path path) throws IOException {
+        List<SessionEvent> events = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends.
+            }
+            header.flip();
+            readHeader(header, path);
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * RECORD_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    events.add(readRecord(buffer, path));
+                }
+                buffer.compact();
+            }
+        }
+        return events;
+    }
+
+    private static SessionEvent readRecord(ByteBuffer buffer, Path path) throws IOException {
+        long timestamp = buffer.getLong();
+        long sessionId = buffer.getLong();
+        int type = buffer.get();
+        int phase = buffer.get();
+        int remaining = buffer.getInt();
+        int intervals = buffer.getInt();
+        if (type < 0 || type >= TYPES.length || phase < 0 || phase >= PHASES.length) {
+            throw new IOException(path + " contains an invalid event record.");
+        }
+        return new SessionEvent(timestamp, sessionId, TYPES[type], PHASES[phase], remaining, intervals);
+    }
+
+    /**
+     * Reads the file and rebuilds one timeline per session, in order of each session's first event.
+     */
+    public static List<SessionTimeline> replay(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return Collections.emptyList();
+        }
+        return buildTimelines(readEvents(path));
+    }
+
+    public static List<SessionTimeline> buildTimelines(Iterable<SessionEvent> events) {
+        Map<Long, SessionTimeline> sessions = new LinkedHashMap<>();
+        for (SessionEvent event : events) {
+            sessions.computeIfAbsent(event.getSessionId(), SessionTimeline::new).add(event);
+        }
+        return new ArrayList<>(sessions.values());
+    }
+
+    public enum Outcome {
+        COMPLETED,
+        STOPPED,
+        /** No finishing event was recorded, e.g. because the application was closed or crashed. */
+        UNFINISHED
+    }
+
+    public static class SessionTimeline {
+        private final long sessionId;
+        private final List<SessionEvent> events = new ArrayList<>();
+        private final List<Pause> pauses = new ArrayList<>();
+        private Outcome outcome = Outcome.UNFINISHED;
+
+        private SessionTimeline(long sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        private void add(SessionEvent event) {
+            events.add(event);
+            switch (event.getType()) {
+                case PAUSE -> pauses.add(new Pause(event));
+                case RESUME -> endPause(event);
+                case STOP -> {
+                    // A session abandoned while paused has no RESUME; its pause ends with the stop.
+                    endPause(event);
+                    outcome = Outcome.STOPPED;
+                }
+                case COMPLETE -> {
+                    endPause(event);
+                    outcome = Outcome.COMPLETED;
+                }
+                default -> {
+                    // Starts and phase changes only appear in the event list.
+                }
+            }
+        }
+
+        private void endPause(SessionEvent event) {
+            if (!pauses.isEmpty() && pauses.get(pauses.size() - 1).end == null) {
+                pauses.get(pauses.size() - 1).end = event.getTimestamp();
+            }
+        }
+
+        public long getSessionId() {
+            return sessionId;
+        }
+
+        public List<SessionEvent> getEvents() {
+            return Collections.unmodifiableList(events);
+        }
+
+        public List<Pause> getPauses() {
+            return Collections.unmodifiableList(pauses);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public Instant getStart() {
+            return events.get(0).getTimestamp();
+        }
+
+        public Instant getEnd() {
+            return events.get(events.size() - 1).getTimestamp();
+        }
+
+        /**
+         * @return the last recorded event, which for stopped or unfinished sessions shows where they
+         * were abandoned
+         */
+        public SessionEvent getLastEvent() {
+            return events.get(events.size() - 1);
+        }
+
+        /**
+         * @return total time spent paused; a pause that was never resumed counts up to the last event
+         */
+        public Duration getPausedDuration() {
+            Duration total = Duration.ZERO;
+            for (Pause pause : pauses) {
+                Instant end = pause.end != null ? pause.end : getEnd();
+                total = total.plus(Duration.between(pause.start, end));
+            }
+            return total;
+        }
+    }
+
+    public static class Pause {
+        private final Instant start;
+        private final PomodoroTimer.Phase phase;
+        private final int remainingSeconds;
+        private Instant end;
+
+        private Pause(SessionEvent event) {
+            this.start = event.getTimestamp();
+            this.phase = event.getPhase();
+            this.remainingSeconds = event.getRemainingSeconds();
+        }
+
+        public Instant getStart() {
+            return start;
+        }
+
+        /**
+         * @return when the session was resumed, or {@code null} if it never was
+         */
+        public Instant getEnd() {
+            return end;
+        }
+
+        public PomodoroTimer.Phase getPhase() {
+            return phase;
+        }
+
+        public int getRemainingSeconds() {
+            return remainingSeconds;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.teoproject.pomodoro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Records the start, pause, resume, phase change and finish of every attached timer into a
+ * preallocated in-memory ring buffer. A background thread drains the ring into the binary event log
+ * described in {@link SessionEventLog} every few seconds, or sooner once the ring is half full, so
+ * timers never wait on disk and ordinary ticks are not recorded at all.
+ *
+ * <p>If the flusher falls so far behind that the ring fills up, new events are dropped rather than
+ * blocking the timer; {@link #getDroppedCount()} reports how many.
+ */
+public class SessionEventRecorder implements Closeable {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final long FLUSH_INTERVAL_MILLIS = 2000;
+
+    private final Path eventLogPath;
+    private final LongSupplier clockMillis;
+    private final AtomicLong nextSessionId;
+
+    // Ring buffer: one slot per event, stored column-wise so recording never allocates.
+    private final Object ringLock = new Object();
+    private final int capacity;
+    private final long[] timestamps;
+    private final long[] sessionIds;
+    private final byte[] types;
+    private final byte[] phases;
+    private final int[] remainingSeconds;
+    private final int[] completedIntervals;
+    private long head;
+    private long tail;
+    private long recorded;
+    private long dropped;
+    private boolean closed;
+
+    private final Object flushLock = new Object();
+    private final ByteBuffer drainBuffer;
+    private FileChannel channel;
+    private final Thread flusher;
+
+    public SessionEventRecorder(Path eventLogPath) {
+        this(eventLogPath, DEFAULT_CAPACITY, System::currentTimeMillis);
+    }
+
+    /**
+     * Records with the timestamps of the scheduler the sessions run on.
+     */
+    public SessionEventRecorder(Path eventLogPath, TimerScheduler scheduler) {
+        this(eventLogPath, DEFAULT_CAPACITY, scheduler::currentTimeMillis);
+    }
+
+    /**
+     * @param clockMillis time source for event timestamps, e.g.
+     *                    {@link VirtualTimeScheduler#currentTimeMillis()} for simulated sessions
+     */
+    public SessionEventRecorder(Path eventLogPath, int capacity, LongSupplier clockMillis) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2.");
+        }
+        this.eventLogPath = eventLogPath;
+        this.clockMillis = clockMillis;
+        this.nextSessionId = new AtomicLong(System.currentTimeMillis() * 1000);
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.sessionIds = new long[capacity];
+        this.types = new byte[capacity];
+        this.phases = new byte[capacity];
+        this.remainingSeconds = new int[capacity];
+        this.completedIntervals = new int[capacity];
+        this.drainBuffer = ByteBuffer.allocate(capacity * SessionEventLog.RECORD_SIZE);
+
+        this.flusher = new Thread(this::flushLoop, "Pomodoro-Event-Flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Starts recording the timer's events under a new session id. Attach before starting the timer
+     * so its start is captured.
+     *
+     * @return the session id under which the events are recorded
+     */
+    public long attach(PomodoroTimer timer) {
+        long sessionId = nextSessionId.incrementAndGet();
+        timer.addListener(new SessionListener(sessionId, timer));
+        return sessionId;
+    }
+
+    private void record(long sessionId, SessionEvent.Type type, PomodoroTimer.TimerStatus status) {
+        long now = clockMillis.getAsLong();
+        synchronized (ringLock) {
+            if (closed || head - tail == capacity) {
+                dropped++;
+                return;
+            }
+            int slot = (int) (head % capacity);
+            timestamps[slot] = now;
+            sessionIds[slot] = sessionId;
+            types[slot] = (byte) type.ordinal();
+            phases[slot] = (byte) status.getPhase().ordinal();
+            remainingSeconds[slot] = (int) status.getRemaining().getSeconds();
+            completedIntervals[slot] = status.getCompletedIntervals();
+            head++;
+            recorded++;
+            if (head - tail == capacity / 2) {
+                ringLock.notifyAll();
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (ringLock) {
+                if (closed) {
+                    return;
+                }
+                if (head - tail < capacity / 2) {
+                    try {
+                        ringLock.wait(FLUSH_INTERVAL_MILLIS);
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+            }
+            try {
+                flush();
+            } catch (IOException ex) {
+                System.err.println("Unable to write session events: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes every buffered event to the event log with a single write.
+     */
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            drainBuffer.clear();
+            int count;
+            synchronized (ringLock) {
+                count = (int) (head - tail);
+                for (long i = tail; i < head; i++) {
+                    int slot = (int) (i % capacity);
+                    SessionEventLog.writeRecord(drainBuffer, timestamps[slot], sessionIds[slot], types[slot],
+                            phases[slot], remainingSeconds[slot], completedIntervals[slot]);
+                }
+                tail = head;
+            }
+            if (count == 0) {
+                return;
+            }
+            drainBuffer.flip();
+            try {
+                FileChannel output = openChannel();
+                while (drainBuffer.hasRemaining()) {
+                    output.write(drainBuffer);
+                }
+            } catch (IOException ex) {
+                synchronized (ringLock) {
+                    dropped += count;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel != null) {
+            return channel;
+        }
+        Path parent = eventLogPath.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel opened = FileChannel.open(eventLogPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = opened.size();
+            ByteBuffer header = ByteBuffer.allocate(SessionEventLog.HEADER_SIZE);
+            if (size == 0) {
+                SessionEventLog.writeHeader(header);
+                header.flip();
+                while (header.hasRemaining()) {
+                    opened.write(header, header.position());
+                }
+                size = SessionEventLog.HEADER_SIZE;
+            } else {
+                opened.read(header, 0);
+                header.flip();
+                SessionEventLog.readHeader(header, eventLogPath);
+                // Drop a record cut short by a crash so that new records stay aligned.
+                long records = (size - SessionEventLog.HEADER_SIZE) / SessionEventLog.RECORD_SIZE;
+                size = SessionEventLog.HEADER_SIZE + records * SessionEventLog.RECORD_SIZE;
+                opened.truncate(size);
+            }
+            opened.position(size);
+        } catch (IOException ex) {
+            opened.close();
+            throw ex;
+        }
+        channel = opened;
+        return channel;
+    }
+
+    /**
+     * Stops the flusher, writes any remaining events and closes the file. Events recorded after
+     * closing are dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (ringLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ringLock.notifyAll();
+        }
+        try {
+            flusher.join(FLUSH_INTERVAL_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (flushLock) {
+            try {
+                flush();
+            } finally {
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+            }
+        }
+    }
+
+    public long getRecordedCount() {
+        synchronized (ringLock) {
+            return recorded;
+        }
+    }
+
+    public long getDroppedCount() {
+        synchronized (ringLock) {
+            return dropped;
+        }
+    }
+
+    public Path getEventLogPath() {
+        return eventLogPath;
+    }
+
+    /**
+     * Turns a timer's status stream into control and phase events by comparing each status with
+     * the previous one; plain countdown updates record nothing.
+     */
+    private final class SessionListener implements PomodoroTimerListener {
+        private final long sessionId;
+        private final PomodoroTimer timer;
+        private PomodoroTimer.Phase lastPhase;
+        private boolean lastPaused;
+        private PomodoroTimer.TimerStatus lastStatus;
+
+        private SessionListener(long sessionId, PomodoroTimer timer) {
+            this.sessionId = sessionId;
+            this.timer = timer;
+        }
+
+        @Override
+        public synchronized void onStatusUpdate(PomodoroTimer.TimerStatus status) {
+            PomodoroTimer.Phase phase = status.getPhase();
+            if (phase == PomodoroTimer.Phase.COMPLETE) {
+                // Recorded as STOP or COMPLETE by onSessionFinished, with the last running status.
+                return;
+            }
+            if (lastPhase == null) {
+                record(sessionId, SessionEvent.Type.START, status);
+            } else if (phase != lastPhase) {
+                record(sessionId, SessionEvent.Type.PHASE_CHANGE, status);
+            }
+            if (!status.isPaused() && lastPaused && timer.isStopRequested()) {
+                // Stopping clears the pause without resuming; the session is recorded as stopped
+                // while paused, ending with the STOP from onSessionFinished.
+                lastPhase = phase;
+                return;
+            }
+            if (status.isPaused() != lastPaused) {
+                record(sessionId, status.isPaused() ? SessionEvent.Type.PAUSE : SessionEvent.Type.RESUME, status);
+            }
+            lastPhase = phase;
+            lastPaused = status.isPaused();
+            lastStatus = status;
+        }
+
+        @Override
+        public synchronized void onSessionFinished(boolean completed) {
+            PomodoroTimer.TimerStatus status = lastStatus != null
+                    ? lastStatus
+                    : new PomodoroTimer.TimerStatus(PomodoroTimer.Phase.IDLE, Duration.ZERO, 0, 0, false);
+            record(sessionId, completed ? SessionEvent.Type.COMPLETE : SessionEvent.Type.STOP, status);
+        }
+    }
+}
@@ -51,7 +51,8 @@ public class SessionLogEntry {
             throw new IllegalArgumentException("Invalid log row: " + row);
         }
         LocalDateTime time = LocalDateTime.parse(parts[0], FORMATTER);
-        String goal = unescape(parts[1]);
+        // splitEscaped has already removed the escapes.
+        String goal = parts[1];
         long minutes = Long.parseLong(parts[2]);
         int intervals = Integer.parseInt(parts[3]);
         return new SessionLogEntry(time, goal, minutes, intervals);
@@ -61,22 +62,6 @@ public class SessionLogEntry {
         return text.replace("\\", "\\\\").replace(",", "\\,");
     }
 
-    private static String unescape(String text) {
-        StringBuilder builder = new StringBuilder();
-        boolean escaping = false;
-        for (char ch : text.toCharArray()) {
-            if (escaping) {
-                builder.append(ch);
-                escaping = false;
-            } else if (ch == '\\') {
-                escaping = true;
-            } else {
-                builder.append(ch);
-            }
-        }
-        return builder.toString();
-    }
-
     private static String[] splitEscaped(String row) {
         java.util.List<String> parts = new java.util.ArrayList<>();
         StringBuilder current = new StringBuilder();
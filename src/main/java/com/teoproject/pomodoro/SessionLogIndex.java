@@ -0,0 +1,83 @@
+package com.teoproject.pomodoro;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps session entries ordered by timestamp so range queries can binary-search their bounds
+ * instead of scanning the whole history. The log is written in time order, so building the index
+ * normally costs a single ordered check; out-of-order files are sorted once.
+ */
+public class SessionLogIndex {
+    private static final Comparator<SessionLogEntry> BY_TIMESTAMP = Comparator.comparing(SessionLogEntry::getTimestamp);
+
+    private final List<SessionLogEntry> entries;
+
+    public SessionLogIndex(List<? extends SessionLogEntry> entries) {
+        this.entries = new ArrayList<>(entries);
+        if (!isSorted(this.entries)) {
+            this.entries.sort(BY_TIMESTAMP);
+        }
+    }
+
+    private static boolean isSorted(List<SessionLogEntry> entries) {
+        for (int i = 1; i < entries.size(); i++) {
+            if (entries.get(i - 1).getTimestamp().isAfter(entries.get(i).getTimestamp())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a newly logged entry, keeping timestamp order.
+     */
+    public synchronized void add(SessionLogEntry entry) {
+        int position = upperBound(entry.getTimestamp());
+        entries.add(position, entry);
+    }
+
+    /**
+     * @return entries with {@code from <= timestamp < to}, as a read-only view
+     */
+    public synchronized List<SessionLogEntry> entriesBetween(LocalDateTime from, LocalDateTime to) {
+        int start = lowerBound(from);
+        int end = Math.max(start, lowerBound(to));
+        return Collections.unmodifiableList(new ArrayList<>(entries.subList(start, end)));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private int lowerBound(LocalDateTime time) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).getTimestamp().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(LocalDateTime time) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).getTimestamp().isAfter(time)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,25 @@
+package com.teoproject.pomodoro;
+
+/**
+ * Listener notified by {@link SessionLogger} after each entry is written to the log and whenever
+ * the log is rewritten in place.
+ */
+public interface SessionLogListener {
+
+    /**
+     * Called on the appending thread while the logger is still locked, so implementations must be
+     * quick and must not call back into the logger.
+     *
+     * @param entry  the entry that was written
+     * @param offset byte offset in the log file at which the entry's row starts
+     */
+    void onEntryAppended(SessionLogEntry entry, long offset);
+
+    /**
+     * Called after the logger has replaced the log with a rewritten copy, e.g. by
+     * {@link SessionLogger#compact()}, so offsets and row numbers seen before no longer apply. Like
+     * {@link #onEntryAppended}, it runs while the logger is locked.
+     */
+    default void onLogRewritten() {
+    }
+}
@@ -0,0 +1,272 @@
+package com.teoproject.pomodoro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Gives random access to the rows of a session log without parsing or holding the whole file.
+ * {@link #refresh()} records the byte range of every non-blank line, scanning only bytes added
+ * since the previous refresh, and {@link #readRows(int, int)} parses just the requested rows.
+ * Rows that cannot be parsed are returned as {@code null} so row numbers stay stable.
+ */
+public class SessionLogPager implements SessionLogListener {
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final Path logPath;
+    private final Object refreshLock = new Object();
+
+    private long[] rowStarts = new long[1024];
+    private long[] rowEnds = new long[1024];
+    private int rowCount;
+    private long indexedLength;
+    private Object indexedFileKey;
+    private int generation;
+    private volatile long rewriteNotices;
+    private long indexedRewriteNotices;
+
+    public SessionLogPager(Path logPath) {
+        this.logPath = logPath;
+    }
+
+    /**
+     * Rows are indexed from the file by {@link #refresh()}, so appends need no bookkeeping here.
+     */
+    @Override
+    public void onEntryAppended(SessionLogEntry entry, long offset) {
+    }
+
+    /**
+     * Makes the next {@link #refresh()} rebuild the index. Register the pager with
+     * {@link SessionLogger#addListener} so rewrites are noticed even when the rewritten log has the
+     * same size and the platform reports no file identity.
+     */
+    @Override
+    public void onLogRewritten() {
+        rewriteNotices++;
+    }
+
+    /**
+     * Indexes any complete lines appended since the last call. If the log was rewritten by the
+     * logger the pager listens to, shrank, or was replaced by a different file, the index is
+     * rebuilt from the start.
+     *
+     * <p>The file is scanned without holding the lock that {@link #readRows} needs, so rows keep
+     * being served, from the previous index, while a large log is rescanned; the new rows are
+     * published in one step at the end.
+     *
+     * @return the number of rows now available
+     */
+    public int refresh() throws IOException {
+        synchronized (refreshLock) {
+            if (!Files.exists(logPath)) {
+                synchronized (this) {
+                    reset();
+                }
+                return 0;
+            }
+            // Read before the file so a rewrite that lands during the scan forces another rebuild.
+            long rewrites = rewriteNotices;
+            try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+                long size = channel.size();
+                PomodoroMetrics.SESSION_LOG.logSizeObserved(size);
+                Object fileKey = Files.readAttributes(logPath, BasicFileAttributes.class).fileKey();
+                boolean rebuild;
+                long start;
+                synchronized (this) {
+                    rebuild = rewrites != indexedRewriteNotices || size < indexedLength
+                            || !Objects.equals(fileKey, indexedFileKey);
+                    start = rebuild ? 0 : indexedLength;
+                }
+                ScannedRows scanned = scan(channel, start, size);
+                synchronized (this) {
+                    if (rebuild) {
+                        reset();
+                        indexedFileKey = fileKey;
+                        indexedRewriteNotices = rewrites;
+                    }
+                    for (int i = 0; i < scanned.count; i++) {
+                        addRow(scanned.starts[i], scanned.ends[i]);
+                    }
+                    indexedLength = Math.max(indexedLength, scanned.indexedLength);
+                    return rowCount;
+                }
+            }
+        }
+    }
+
+    private void reset() {
+        if (rowCount > 0 || indexedLength > 0) {
+            generation++;
+        }
+        rowCount = 0;
+        indexedLength = 0;
+    }
+
+    private static ScannedRows scan(FileChannel channel, long from, long size) throws IOException {
+        ScannedRows rows = new ScannedRows(from);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        long lineStart = from;
+        boolean hasContent = false;
+        while (position < size) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new java.io.InterruptedIOException("Log indexing was cancelled.");
+            }
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte value = buffer.get(i);
+                long offset = position + i;
+                if (value == '\n') {
+                    if (hasContent) {
+                        // Any trailing carriage return is trimmed when the row is parsed.
+                        rows.add(lineStart, offset);
+                    }
+                    lineStart = offset + 1;
+                    rows.indexedLength = lineStart;
+                    hasContent = false;
+                } else if (value != ' ' && value != '\t' && value != '\r') {
+                    hasContent = true;
+                }
+            }
+            position += read;
+        }
+        return rows;
+    }
+
+    private void addRow(long start, long end) {
+        if (rowCount == rowStarts.length) {
+            rowStarts = Arrays.copyOf(rowStarts, rowCount * 2);
+            rowEnds = Arrays.copyOf(rowEnds, rowCount * 2);
+        }
+        rowStarts[rowCount] = start;
+        rowEnds[rowCount] = end;
+        rowCount++;
+    }
+
+    /**
+     * @return a number that changes whenever the index is rebuilt, so row numbers taken from an
+     * earlier generation no longer refer to the same rows
+     */
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return the byte offset just past the last indexed line; rows appended later start here or beyond
+     */
+    public synchronized long getIndexedLength() {
+        return indexedLength;
+    }
+
+    public synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return byte offset in the log file at which the given row starts
+     */
+    public synchronized long getRowStart(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+        return rowStarts[row];
+    }
+
+    /**
+     * Parses {@code count} rows starting at {@code firstRow} with a single positional read.
+     *
+     * @return the parsed rows, with {@code null} for rows that are not valid log entries
+     */
+    public SessionLogEntry[] readRows(int firstRow, int count) throws IOException {
+        long[] starts;
+        long[] ends;
+        synchronized (this) {
+            if (firstRow < 0 || count < 0 || firstRow + count > rowCount) {
+                throw new IndexOutOfBoundsException("Rows " + firstRow + "+" + count + " of " + rowCount);
+            }
+            starts = Arrays.copyOfRange(rowStarts, firstRow, firstRow + count);
+            ends = Arrays.copyOfRange(rowEnds, firstRow, firstRow + count);
+        }
+        SessionLogEntry[] rows = new SessionLogEntry[count];
+        if (count == 0) {
+            return rows;
+        }
+        long startNanos = System.nanoTime();
+        PomodoroEvents.LogRead event = new PomodoroEvents.LogRead();
+        event.begin();
+        long rangeStart = starts[0];
+        long rangeEnd = ends[count - 1];
+        ByteBuffer buffer = ByteBuffer.allocate((int) (rangeEnd - rangeStart));
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, rangeStart + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        byte[] bytes = buffer.array();
+        int skipped = 0;
+        for (int i = 0; i < count; i++) {
+            int start = (int) (starts[i] - rangeStart);
+            int end = (int) (ends[i] - rangeStart);
+            String line = new String(bytes, start, end - start, StandardCharsets.UTF_8).trim();
+            try {
+                rows[i] = SessionLogEntry.fromCsvRow(line);
+            } catch (IllegalArgumentException | java.time.format.DateTimeParseException ex) {
+                rows[i] = null;
+                skipped++;
+            }
+        }
+        PomodoroMetrics.SESSION_LOG.read(count, System.nanoTime() - startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = logPath.toString();
+            event.operation = "readRows";
+            event.rows = count;
+            event.skippedRows = skipped;
+            event.bytes = bytes.length;
+            event.commit();
+        }
+        return rows;
+    }
+
+    public Path getLogPath() {
+        return logPath;
+    }
+
+    /**
+     * Rows found by one scan, collected before they are published to the index.
+     */
+    private static final class ScannedRows {
+        private long[] starts = new long[256];
+        private long[] ends = new long[256];
+        private int count;
+        private long indexedLength;
+
+        private ScannedRows(long from) {
+            this.indexedLength = from;
+        }
+
+        private void add(long start, long end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.teoproject.pomodoro;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model that shows a session log without copying it into memory. Rows are fetched from a
+ * {@link SessionLogPager} one page at a time as the table asks for them, a small number of pages
+ * are kept in an LRU cache, and cell values are formatted only when a cell is painted.
+ *
+ * <p>Pages are read on a background thread so painting never waits for the disk: a row whose page
+ * has not arrived yet shows a placeholder and is repainted once the page is loaded. A page that
+ * cannot be read is remembered as unreadable until the next {@link #reload}.
+ */
+public class SessionLogTableModel extends AbstractTableModel {
+    static final int PAGE_SIZE = 256;
+    static final int MAX_CACHED_PAGES = 64;
+
+    private static final String[] COLUMN_NAMES = {"Date", "Goal", "Focus (min)", "Intervals"};
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final ExecutorService PAGE_LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Pomodoro-Log-Page-Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Integer, SessionLogEntry[]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, SessionLogEntry[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private final Set<Integer> failedPages = new HashSet<>();
+
+    private SessionLogPager pager;
+    private int rowCount;
+    private int[] visibleRows;
+    private int reloadCount;
+
+    /**
+     * Switches to the pager's current rows. Must be called on the Event Dispatch Thread after the
+     * pager has been refreshed.
+     */
+    public void reload(SessionLogPager pager) {
+        reload(pager, null);
+    }
+
+    /**
+     * Switches to the pager's current rows, starting with pages that were read in the background by
+     * {@link #preload}, so the rows on screen are shown without another disk read. Preloaded pages
+     * that no longer match the pager, because it was refreshed or rebuilt since, are ignored.
+     */
+    public void reload(SessionLogPager pager, PreloadedPages preloaded) {
+        this.pager = pager;
+        this.rowCount = pager.getRowCount();
+        pages.clear();
+        loadingPages.clear();
+        failedPages.clear();
+        reloadCount++;
+        if (preloaded != null && preloaded.generation == pager.getGeneration()) {
+            for (Map.Entry<Integer, SessionLogEntry[]> page : preloaded.pages.entrySet()) {
+                int first = page.getKey() * PAGE_SIZE;
+                if (first < rowCount && page.getValue().length == Math.min(PAGE_SIZE, rowCount - first)) {
+                    pages.put(page.getKey(), page.getValue());
+                }
+            }
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * @return the log pages holding the given range of displayed rows, or the first page when the
+     *         range is empty, for passing to {@link #preload}
+     */
+    public int[] getPages(int firstViewRow, int lastViewRow) {
+        Set<Integer> result = new TreeSet<>();
+        for (int row = Math.max(firstViewRow, 0); row <= lastViewRow && row < getRowCount(); row++) {
+            result.add(toLogRow(row) / PAGE_SIZE);
+            if (result.size() == MAX_CACHED_PAGES) {
+                break;
+            }
+        }
+        if (result.isEmpty()) {
+            return new int[] {0};
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Reads the given pages from a refreshed pager. Meant to be called off the Event Dispatch Thread
+     * and the result handed to {@link #reload(SessionLogPager, PreloadedPages)}.
+     */
+    public static PreloadedPages preload(SessionLogPager pager, int[] pageNumbers) throws IOException {
+        int generation = pager.getGeneration();
+        int available = pager.getRowCount();
+        Map<Integer, SessionLogEntry[]> loaded = new HashMap<>();
+        for (int page : pageNumbers) {
+            int first = page * PAGE_SIZE;
+            if (first < available) {
+                loaded.put(page, pager.readRows(first, Math.min(PAGE_SIZE, available - first)));
+            }
+        }
+        return new PreloadedPages(generation, loaded);
+    }
+
+    /**
+     * Restricts the table to the given log rows, e.g. search results, or shows every row again when
+     * {@code rows} is {@code null}. Row numbers beyond the loaded log are ignored.
+     */
+    public void setVisibleRows(int[] rows) {
+        if (rows == null) {
+            visibleRows = null;
+        } else {
+            int count = 0;
+            while (count < rows.length && rows[count] < rowCount) {
+                count++;
+            }
+            visibleRows = count == rows.length ? rows : Arrays.copyOf(rows, count);
+        }
+        fireTableDataChanged();
+    }
+
+    public boolean isFiltered() {
+        return visibleRows != null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return visibleRows != null ? visibleRows.length : rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return switch (column) {
+            case 2 -> Long.class;
+            case 3 -> Integer.class;
+            default -> String.class;
+        };
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        SessionLogEntry entry = getEntry(row);
+        if (entry == null) {
+            if (column != 1) {
+                return null;
+            }
+            return isPageLoaded(row) ? "(unreadable row)" : "Loading\u2026";
+        }
+        return switch (column) {
+            case 0 -> entry.getTimestamp().format(DATE_FORMATTER);
+            case 1 -> entry.getGoalDescription();
+            case 2 -> entry.getFocusMinutes();
+            case 3 -> entry.getIntervalsCompleted();
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the entry at the given row if its page has been loaded. Otherwise the page is
+     * requested in the background and the table is notified when it arrives. Must be called on the
+     * Event Dispatch Thread.
+     *
+     * @param viewRow row index as displayed by the table
+     * @return the entry at the given row, or {@code null} if the row could not be read or has not
+     *         been loaded yet
+     */
+    public SessionLogEntry getEntry(int viewRow) {
+        int row = toLogRow(viewRow);
+        int page = row / PAGE_SIZE;
+        SessionLogEntry[] entries = pages.get(page);
+        if (entries == null) {
+            if (!failedPages.contains(page) && loadingPages.add(page)) {
+                loadPage(page);
+            }
+            return null;
+        }
+        return entries[row % PAGE_SIZE];
+    }
+
+    private boolean isPageLoaded(int viewRow) {
+        int page = toLogRow(viewRow) / PAGE_SIZE;
+        return pages.containsKey(page) || failedPages.contains(page);
+    }
+
+    private int toLogRow(int viewRow) {
+        return visibleRows != null ? visibleRows[viewRow] : viewRow;
+    }
+
+    private static int insertionPoint(int[] rows, int row) {
+        int index = Arrays.binarySearch(rows, row);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void loadPage(int page) {
+        SessionLogPager source = pager;
+        int expectedReload = reloadCount;
+        int first = page * PAGE_SIZE;
+        int count = Math.min(PAGE_SIZE, rowCount - first);
+        PAGE_LOADER.execute(() -> {
+            SessionLogEntry[] entries;
+            try {
+                entries = source.readRows(first, count);
+            } catch (IOException | IndexOutOfBoundsException ex) {
+                // The log changed underneath the table; the next reload brings it back in sync.
+                entries = null;
+            }
+            SessionLogEntry[] loaded = entries;
+            SwingUtilities.invokeLater(() -> pageLoaded(expectedReload, page, loaded));
+        });
+    }
+
+    private void pageLoaded(int expectedReload, int page, SessionLogEntry[] entries) {
+        if (expectedReload != reloadCount) {
+            return;
+        }
+        loadingPages.remove(page);
+        if (entries != null) {
+            pages.put(page, entries);
+        } else {
+            failedPages.add(page);
+        }
+        int first = page * PAGE_SIZE;
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (visibleRows != null) {
+            // Search results are in log order, so the page's rows form one block of the view.
+            first = insertionPoint(visibleRows, first);
+            last = insertionPoint(visibleRows, last + 1) - 1;
+        }
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    /**
+     * Pages read ahead of a {@link #reload(SessionLogPager, PreloadedPages)}, tagged with the pager
+     * generation they were read from.
+     */
+    public static final class PreloadedPages {
+        private final int generation;
+        private final Map<Integer, SessionLogEntry[]> pages;
+
+        private PreloadedPages(int generation, Map<Integer, SessionLogEntry[]> pages) {
+            this.generation = generation;
+            this.pages = pages;
+        }
+    }
+}
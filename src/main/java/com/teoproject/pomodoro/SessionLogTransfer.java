@@ -0,0 +1,813 @@
+package com.teoproject.pomodoro;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import and export between a session log and JSON Lines or CSV files. Both directions stream,
+ * so memory use does not depend on the size of the input or the log.
+ *
+ * <p>Import reads records on the calling thread, parses chunks of {@value #CHUNK_RECORDS} records
+ * on a pool of parser threads and appends each parsed chunk with a single
+ * {@link SessionLogger#appendEntries} call, in input order. At most two chunks per parser thread are
+ * in flight. Rows that cannot be parsed are skipped and counted. Imported entries keep their
+ * timestamps, so backfilled history may be out of timestamp order in the log.
+ *
+ * <p>Records have the fields {@code timestamp} (ISO local date-time, or with an offset, which is
+ * converted to the log's zone), {@code goal}, {@code focus_minutes} and {@code intervals_completed}.
+ * CSV files are RFC 4180 style with a configurable delimiter and, by default, a header row naming
+ * the columns in any order.
+ *
+ * <pre>
+ * java -cp pomodoro-app-1.0.0.jar com.teoproject.pomodoro.SessionLogTransfer \
+ *     import|export [--format jsonl|csv|tsv] [--delimiter ;] [--no-header] [--zone UTC]
+ *     [--log session_log.csv] [FILE]
+ * </pre>
+ */
+public final class SessionLogTransfer {
+    static final String[] COLUMNS = {"timestamp", "goal", "focus_minutes", "intervals_completed"};
+    private static final int TIMESTAMP = 0;
+    private static final int GOAL = 1;
+    private static final int FOCUS_MINUTES = 2;
+    private static final int INTERVALS = 3;
+
+    private static final int CHUNK_RECORDS = 8192;
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+    private static final int MAX_REPORTED_ERRORS = 10;
+    // A quoted CSV field may span lines; a stray quote must not swallow the rest of the file.
+    private static final int MAX_RECORD_CHARS = 1 << 16;
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final SessionLogger logger;
+    private final Dialect dialect;
+    private final ZoneId zone;
+    private final int parserThreads;
+
+    public SessionLogTransfer(SessionLogger logger, Dialect dialect) {
+        this(logger, dialect, ZoneId.systemDefault(), Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param zone          zone of the log's local timestamps, used for imported timestamps that
+     *                      carry an offset
+     * @param parserThreads number of threads parsing imported records
+     */
+    public SessionLogTransfer(SessionLogger logger, Dialect dialect, ZoneId zone, int parserThreads) {
+        if (parserThreads < 1) {
+            throw new IllegalArgumentException("At least one parser thread is required.");
+        }
+        this.logger = logger;
+        this.dialect = dialect;
+        this.zone = zone;
+        this.parserThreads = parserThreads;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.err.println(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        SessionLogger logger = options.log == null ? new SessionLogger() : new SessionLogger(options.log);
+        SessionLogTransfer transfer = new SessionLogTransfer(logger, options.dialect(), options.zone,
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        Result result;
+        try {
+            if (options.importing) {
+                try (InputStream in = options.file == null ? System.in : Files.newInputStream(options.file)) {
+                    result = transfer.importFrom(in, System.err);
+                }
+            } else {
+                try (OutputStream out = options.file == null ? System.out : Files.newOutputStream(options.file)) {
+                    result = transfer.exportTo(out, System.err);
+                }
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+            return;
+        }
+        System.err.println(result);
+        System.exit(0);
+    }
+
+    /**
+     * Parses every record of {@code input} and appends the valid ones to the log.
+     *
+     * @param progress where to print throughput every few seconds and the first few skipped rows,
+     *                 or {@code null} for silence
+     */
+    public Result importFrom(InputStream input, PrintStream progress) throws IOException {
+        CountingInputStream counted = new CountingInputStream(input);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(counted, StandardCharsets.UTF_8), IO_BUFFER_BYTES);
+        RecordReader records = new RecordReader(reader, dialect);
+        Throughput throughput = new Throughput("Imported", progress);
+        int[] columns = dialect.json || !dialect.header ? null : readHeader(records);
+
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "Pomodoro-Import-Parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        try {
+            while (true) {
+                long firstRecord = records.getRecordNumber() + 1;
+                List<String> chunk = new ArrayList<>(CHUNK_RECORDS);
+                String record;
+                while (chunk.size() < CHUNK_RECORDS && (record = records.next()) != null) {
+                    chunk.add(record);
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                // Bounds memory and keeps the log in input order: the oldest chunk is written before
+                // another one is read once the pipeline is full.
+                if (inFlight.size() >= 2 * parserThreads) {
+                    write(inFlight.removeFirst(), throughput, counted.count);
+                }
+                inFlight.add(parsers.submit(() -> parseChunk(chunk, firstRecord, columns)));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.removeFirst(), throughput, counted.count);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        return throughput.finish(counted.count);
+    }
+
+    private void write(Future<Chunk> pending, Throughput throughput, long bytesRead) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = pending.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(ex.getCause());
+        }
+        logger.appendEntries(chunk.entries);
+        for (String error : chunk.errors) {
+            throughput.reportSkipped(error);
+        }
+        throughput.update(chunk.entries.size(), chunk.skipped, bytesRead);
+    }
+
+    private int[] readHeader(RecordReader records) throws IOException {
+        String header = records.next();
+        if (header == null) {
+            return null;
+        }
+        List<String> names;
+        try {
+            names = splitCsv(header, dialect.delimiter);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid CSV header: " + ex.getMessage());
+        }
+        int[] columns = new int[COLUMNS.length];
+        for (int column = 0; column < COLUMNS.length; column++) {
+            columns[column] = -1;
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).trim().equalsIgnoreCase(COLUMNS[column])) {
+                    columns[column] = i;
+                }
+            }
+        }
+        if (columns[TIMESTAMP] < 0 || columns[FOCUS_MINUTES] < 0) {
+            throw new IOException("CSV header must name at least the timestamp and focus_minutes columns: " + header);
+        }
+        return columns;
+    }
+
+    private Chunk parseChunk(List<String> records, long firstRecord, int[] columns) {
+        Chunk chunk = new Chunk(records.size());
+        long recordNumber = firstRecord;
+        for (String record : records) {
+            try {
+                chunk.entries.add(dialect.json ? parseJson(record) : parseCsv(record, columns));
+            } catch (RuntimeException ex) {
+                chunk.skipped++;
+                if (chunk.errors.size() < MAX_REPORTED_ERRORS) {
+                    chunk.errors.add("record " + recordNumber + ": " + ex.getMessage());
+                }
+            }
+            recordNumber++;
+        }
+        return chunk;
+    }
+
+    private SessionLogEntry parseCsv(String record, int[] columns) {
+        List<String> fields = splitCsv(record, dialect.delimiter);
+        return toEntry(field(fields, columns, TIMESTAMP), field(fields, columns, GOAL),
+                field(fields, columns, FOCUS_MINUTES), field(fields, columns, INTERVALS));
+    }
+
+    private static String field(List<String> fields, int[] columns, int column) {
+        int index = columns == null ? column : columns[column];
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private SessionLogEntry parseJson(String record) {
+        Map<String, String> fields = parseJsonObject(record);
+        return toEntry(fields.get(COLUMNS[TIMESTAMP]), fields.get(COLUMNS[GOAL]),
+                fields.get(COLUMNS[FOCUS_MINUTES]), fields.get(COLUMNS[INTERVALS]));
+    }
+
+    private SessionLogEntry toEntry(String timestamp, String goal, String focusMinutes, String intervals) {
+        if (timestamp == null || timestamp.isBlank()) {
+            throw new IllegalArgumentException("missing timestamp");
+        }
+        if (focusMinutes == null || focusMinutes.isBlank()) {
+            throw new IllegalArgumentException("missing focus_minutes");
+        }
+        long minutes = Long.parseLong(focusMinutes.trim());
+        int completed = intervals == null || intervals.isBlank() ? 0 : Integer.parseInt(intervals.trim());
+        if (minutes < 0 || completed < 0) {
+            throw new IllegalArgumentException("negative focus_minutes or intervals_completed");
+        }
+        // The log is line-based, so line breaks inside a goal are flattened.
+        String description = goal == null ? "" : goal.replace("\r\n", " ").replace('\n', ' ').replace('\r', ' ');
+        return new SessionLogEntry(parseTimestamp(timestamp.trim()), description, minutes, completed);
+    }
+
+    private LocalDateTime parseTimestamp(String text) {
+        String iso = text.length() > 10 && text.charAt(10) == ' ' ? text.substring(0, 10) + 'T' + text.substring(11) : text;
+        try {
+            return LocalDateTime.parse(iso, TIME_FORMATTER);
+        } catch (DateTimeException ex) {
+            return OffsetDateTime.parse(iso).atZoneSameInstant(zone).toLocalDateTime();
+        }
+    }
+
+    /**
+     * Streams every entry of the log to {@code output} in this transfer's dialect.
+     *
+     * @param progress where to print throughput every few seconds, or {@code null} for silence
+     */
+    public Result exportTo(OutputStream output, PrintStream progress) throws IOException {
+        CountingOutputStream counted = new CountingOutputStream(output);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(counted, StandardCharsets.UTF_8), IO_BUFFER_BYTES);
+        Throughput throughput = new Throughput("Exported", progress);
+        if (!dialect.json && dialect.header) {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                writer.write(i == 0 ? "" : String.valueOf(dialect.delimiter));
+                writer.write(COLUMNS[i]);
+            }
+            writer.write('\n');
+        }
+        long rows = 0;
+        try (Stream<SessionLogEntry> entries = logger.streamEntries()) {
+            Iterator<SessionLogEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                SessionLogEntry entry = iterator.next();
+                if (dialect.json) {
+                    writer.write("{\"timestamp\":\"" + TIME_FORMATTER.format(entry.getTimestamp())
+                            + "\",\"goal\":" + PomodoroReport.jsonString(entry.getGoalDescription())
+                            + ",\"focus_minutes\":" + entry.getFocusMinutes()
+                            + ",\"intervals_completed\":" + entry.getIntervalsCompleted() + "}\n");
+                } else {
+                    char delimiter = dialect.delimiter;
+                    writer.write(TIME_FORMATTER.format(entry.getTimestamp()) + delimiter
+                            + quoteCsv(entry.getGoalDescription(), delimiter) + delimiter
+                            + entry.getFocusMinutes() + delimiter
+                            + entry.getIntervalsCompleted() + "\n");
+                }
+                if (++rows % CHUNK_RECORDS == 0) {
+                    throughput.update(CHUNK_RECORDS, 0, counted.count);
+                }
+            }
+        }
+        writer.flush();
+        throughput.update(rows % CHUNK_RECORDS, 0, counted.count);
+        return throughput.finish(counted.count);
+    }
+
+    static String quoteCsv(String value, char delimiter) {
+        if (value.indexOf(delimiter) < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    static List<String> splitCsv(String record, char delimiter) {
+        List<String> fields = new ArrayList<>(COLUMNS.length);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char ch = record.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == delimiter) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Parses one flat JSON object into its fields. Strings are unescaped, numbers and booleans are
+     * kept as written and {@code null} values are left out; nested objects and arrays are rejected.
+     */
+    static Map<String, String> parseJsonObject(String text) {
+        Map<String, String> fields = new HashMap<>();
+        int[] position = {skipWhitespace(text, 0)};
+        expect(text, position, '{');
+        if (peek(text, position) == '}') {
+            position[0]++;
+        } else {
+            while (true) {
+                String key = readJsonString(text, position);
+                expect(text, position, ':');
+                String value = readJsonValue(text, position);
+                if (value != null) {
+                    fields.put(key, value);
+                }
+                char next = peek(text, position);
+                position[0]++;
+                if (next == '}') {
+                    break;
+                }
+                if (next != ',') {
+                    throw new IllegalArgumentException("expected ',' or '}' at column " + position[0]);
+                }
+            }
+        }
+        if (skipWhitespace(text, position[0]) != text.length()) {
+            throw new IllegalArgumentException("unexpected text after the object");
+        }
+        return fields;
+    }
+
+    private static String readJsonValue(String text, int[] position) {
+        char first = peek(text, position);
+        if (first == '"') {
+            return readJsonString(text, position);
+        }
+        if (first == '{' || first == '[') {
+            throw new IllegalArgumentException("nested values are not supported");
+        }
+        int start = position[0];
+        int end = start;
+        while (end < text.length() && ",} \t\r\n".indexOf(text.charAt(end)) < 0) {
+            end++;
+        }
+        if (end == start) {
+            throw new IllegalArgumentException("missing value at column " + (start + 1));
+        }
+        position[0] = end;
+        String literal = text.substring(start, end);
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static String readJsonString(String text, int[] position) {
+        expect(text, position, '"');
+        int i = position[0];
+        int close = text.indexOf('"', i);
+        int backslash = text.indexOf('\\', i);
+        if (close >= 0 && (backslash < 0 || backslash > close)) {
+            // Most strings have no escapes and are copied in one go.
+            position[0] = close + 1;
+            return text.substring(i, close);
+        }
+        StringBuilder value = new StringBuilder(text.substring(i, backslash));
+        i = backslash;
+        while (true) {
+            if (i >= text.length()) {
+                throw new IllegalArgumentException("unterminated string");
+            }
+            char ch = text.charAt(i++);
+            if (ch == '"') {
+                break;
+            }
+            if (ch != '\\') {
+                value.append(ch);
+                continue;
+            }
+            if (i >= text.length()) {
+                throw new IllegalArgumentException("unterminated string");
+            }
+            char escaped = text.charAt(i++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (i + 4 > text.length()) {
+                        throw new IllegalArgumentException("truncated unicode escape");
+                    }
+                    value.append((char) Integer.parseInt(text.substring(i, i + 4), 16));
+                    i += 4;
+                }
+                default -> throw new IllegalArgumentException("invalid escape \\" + escaped);
+            }
+        }
+        position[0] = i;
+        return value.toString();
+    }
+
+    private static void expect(String text, int[] position, char expected) {
+        if (peek(text, position) != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' at column " + (position[0] + 1));
+        }
+        position[0]++;
+    }
+
+    private static char peek(String text, int[] position) {
+        position[0] = skipWhitespace(text, position[0]);
+        if (position[0] >= text.length()) {
+            throw new IllegalArgumentException("unexpected end of record");
+        }
+        return text.charAt(position[0]);
+    }
+
+    private static int skipWhitespace(String text, int index) {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * File layout for import and export: JSON Lines, or CSV with a delimiter and optional header.
+     */
+    public static final class Dialect {
+        public static final Dialect JSON_LINES = new Dialect(true, ',', false);
+        public static final Dialect CSV = new Dialect(false, ',', true);
+        public static final Dialect TSV = new Dialect(false, '\t', true);
+
+        private final boolean json;
+        private final char delimiter;
+        private final boolean header;
+
+        private Dialect(boolean json, char delimiter, boolean header) {
+            this.json = json;
+            this.delimiter = delimiter;
+            this.header = header;
+        }
+
+        /**
+         * @param header whether the first row names the columns; without one, columns are expected
+         *               in the order timestamp, goal, focus_minutes, intervals_completed
+         */
+        public static Dialect csv(char delimiter, boolean header) {
+            if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+                throw new IllegalArgumentException("Invalid CSV delimiter '" + delimiter + "'.");
+            }
+            return new Dialect(false, delimiter, header);
+        }
+
+        public boolean isJsonLines() {
+            return json;
+        }
+
+        public char getDelimiter() {
+            return delimiter;
+        }
+
+        public boolean hasHeader() {
+            return header;
+        }
+    }
+
+    /**
+     * Counts and throughput of one import or export.
+     */
+    public static class Result {
+        private final long rows;
+        private final long skippedRows;
+        private final long bytes;
+        private final Duration elapsed;
+        private final String operation;
+
+        public Result(long rows, long skippedRows, long bytes, Duration elapsed, String operation) {
+            this.rows = rows;
+            this.skippedRows = skippedRows;
+            this.bytes = bytes;
+            this.elapsed = elapsed;
+            this.operation = operation;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getSkippedRows() {
+            return skippedRows;
+        }
+
+        /**
+         * @return bytes read from the import file or written to the export file
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        public double getRowsPerSecond() {
+            return rows / seconds(elapsed);
+        }
+
+        public double getBytesPerSecond() {
+            return bytes / seconds(elapsed);
+        }
+
+        private static double seconds(Duration duration) {
+            return Math.max(1e-9, duration.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %,d rows (%,d skipped), %.1f MB in %.1f s: %,.0f rows/s, %.1f MB/s",
+                    operation, rows, skippedRows, bytes / 1e6, seconds(elapsed), getRowsPerSecond(), getBytesPerSecond() / 1e6);
+        }
+    }
+
+    private static final class Throughput {
+        private final String verb;
+        private final PrintStream out;
+        private final long startNanos = System.nanoTime();
+        private long lastReportNanos = startNanos;
+        private long rows;
+        private long skipped;
+        private int reportedErrors;
+
+        private Throughput(String verb, PrintStream out) {
+            this.verb = verb;
+            this.out = out;
+        }
+
+        private void update(long newRows, long newSkipped, long bytes) {
+            rows += newRows;
+            skipped += newSkipped;
+            long now = System.nanoTime();
+            if (out != null && now - lastReportNanos >= PROGRESS_INTERVAL_NANOS) {
+                out.println(result(bytes, now));
+                lastReportNanos = now;
+            }
+        }
+
+        private void reportSkipped(String error) {
+            if (out != null && reportedErrors < MAX_REPORTED_ERRORS) {
+                out.println("Skipping invalid " + error);
+                if (++reportedErrors == MAX_REPORTED_ERRORS) {
+                    out.println("Further invalid records are counted but not shown.");
+                }
+            }
+        }
+
+        private Result finish(long bytes) {
+            return result(bytes, System.nanoTime());
+        }
+
+        private Result result(long bytes, long nowNanos) {
+            return new Result(rows, skipped, bytes, Duration.ofNanos(nowNanos - startNanos), verb);
+        }
+    }
+
+    private static final class Chunk {
+        private final List<SessionLogEntry> entries;
+        private final List<String> errors = new ArrayList<>();
+        private int skipped;
+
+        private Chunk(int capacity) {
+            this.entries = new ArrayList<>(capacity);
+        }
+    }
+
+    /**
+     * Splits the input into records: one per non-blank line, except that a CSV record continues
+     * over line breaks inside quoted fields.
+     */
+    private static final class RecordReader {
+        private final BufferedReader reader;
+        private final Dialect dialect;
+        private long recordNumber;
+
+        private RecordReader(BufferedReader reader, Dialect dialect) {
+            this.reader = reader;
+            this.dialect = dialect;
+        }
+
+        /**
+         * @return the next non-blank record, joining the lines of quoted fields that contain line
+         *         breaks, or {@code null} at the end of the input. A record that is still inside a
+         *         quoted field after {@value #MAX_RECORD_CHARS} characters is returned as it stands,
+         *         fails to parse, and reading resumes on the following line.
+         */
+        private String next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            if (!dialect.json && quoteCount(line) % 2 != 0) {
+                StringBuilder record = new StringBuilder(line);
+                int quotes = quoteCount(line);
+                while (quotes % 2 != 0 && record.length() < MAX_RECORD_CHARS && (line = reader.readLine()) != null) {
+                    record.append('\n').append(line);
+                    quotes += quoteCount(line);
+                }
+                line = record.toString();
+            }
+            recordNumber++;
+            return line;
+        }
+
+        private long getRecordNumber() {
+            return recordNumber;
+        }
+
+        private static int quoteCount(String line) {
+            int count = 0;
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"') {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            out.write(value);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+    }
+
+    private static final class Options {
+        private static final String USAGE = "Usage: SessionLogTransfer import|export [--format jsonl|csv|tsv]"
+                + " [--delimiter CHAR] [--no-header] [--zone ZONE] [--log FILE] [FILE]";
+
+        private boolean importing;
+        private String format = "jsonl";
+        private Character delimiter;
+        private boolean header = true;
+        private ZoneId zone = ZoneId.systemDefault();
+        private Path log;
+        private Path file;
+
+        private static Options parse(String[] args) {
+            if (args.length == 0 || !(args[0].equals("import") || args[0].equals("export"))) {
+                throw new IllegalArgumentException("The first argument must be import or export.");
+            }
+            Options options = new Options();
+            options.importing = args[0].equals("import");
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    if (options.file != null) {
+                        throw new IllegalArgumentException("Only one file can be given.");
+                    }
+                    options.file = arg.equals("-") ? null : Paths.get(arg);
+                    continue;
+                }
+                if (arg.equals("--no-header")) {
+                    options.header = false;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--format" -> options.format = value.toLowerCase(Locale.ROOT);
+                    case "--delimiter" -> options.delimiter = parseDelimiter(value);
+                    case "--zone" -> options.zone = ZoneId.of(value);
+                    case "--log" -> options.log = Paths.get(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            options.dialect();
+            return options;
+        }
+
+        private static char parseDelimiter(String value) {
+            if (value.equals("\\t") || value.equalsIgnoreCase("tab")) {
+                return '\t';
+            }
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("The delimiter must be a single character.");
+            }
+            return value.charAt(0);
+        }
+
+        private Dialect dialect() {
+            return switch (format) {
+                case "jsonl" -> Dialect.JSON_LINES;
+                case "csv" -> Dialect.csv(delimiter != null ? delimiter : ',', header);
+                case "tsv" -> Dialect.csv(delimiter != null ? delimiter : '\t', header);
+                default -> throw new IllegalArgumentException("Unknown format " + format);
+            };
+        }
+    }
+}
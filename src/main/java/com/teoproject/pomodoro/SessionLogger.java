@@ -1,14 +1,33 @@
 package com.teoproject.pomodoro;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 /**
  * Handles persistence of session data to a CSV log file and provides utilities for reading the file.
@@ -17,7 +36,13 @@ public class SessionLogger {
     private static final Path DEFAULT_LOG_PATH =
             Paths.get(System.getProperty("user.home"), ".pomodoro-tracker", "session_log.csv");
 
+    private static final int BULK_BUFFER_CHARS = 1 << 16;
+    static final int COMPACTION_RUN_ROWS = 100_000;
+
     private final Path logPath;
+    private volatile long appendCount;
+    private volatile long rewriteCount;
+    private final CopyOnWriteArrayList<SessionLogListener> listeners = new CopyOnWriteArrayList<>();
 
     public SessionLogger() {
         this(DEFAULT_LOG_PATH);
@@ -31,34 +56,184 @@ public class SessionLogger {
         this.logPath = path;
     }
 
+    public void addListener(SessionLogListener listener) {
+        if (listener != null) {
+            listeners.addIfAbsent(listener);
+        }
+    }
+
+    public void removeListener(SessionLogListener listener) {
+        listeners.remove(listener);
+    }
+
     public synchronized void appendEntry(String goalDescription, long focusMinutes, int intervalsCompleted) throws IOException {
+        long startNanos = System.nanoTime();
+        PomodoroEvents.LogAppend event = new PomodoroEvents.LogAppend();
+        event.begin();
         ensureFileExists();
         SessionLogEntry entry = new SessionLogEntry(LocalDateTime.now(), goalDescription, focusMinutes, intervalsCompleted);
+        long offset = Files.size(logPath);
+        String row = entry.toCsvRow();
         try (BufferedWriter writer = Files.newBufferedWriter(
                 logPath,
                 StandardCharsets.UTF_8,
                 java.nio.file.StandardOpenOption.APPEND,
                 java.nio.file.StandardOpenOption.CREATE)) {
-            writer.write(entry.toCsvRow());
+            writer.write(row);
             writer.newLine();
         }
+        appendCount++;
+        long bytes = utf8Length(row) + System.lineSeparator().length();
+        PomodoroMetrics.SESSION_LOG.appended(bytes, System.nanoTime() - startNanos, offset + bytes);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = logPath.toString();
+            event.offset = offset;
+            event.bytes = bytes;
+            event.commit();
+        }
+        for (SessionLogListener listener : listeners) {
+            listener.onEntryAppended(entry, offset);
+        }
+    }
+
+    /**
+     * Appends many entries with a single open and write of the log, for bulk imports. Listeners are
+     * notified for every entry, in order, once the whole batch is written. Entries keep their own
+     * timestamps.
+     */
+    public synchronized void appendEntries(Collection<SessionLogEntry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        PomodoroEvents.LogAppend event = new PomodoroEvents.LogAppend();
+        event.begin();
+        ensureFileExists();
+        long startOffset = Files.size(logPath);
+        long[] offsets = new long[entries.size()];
+        long offset = startOffset;
+        int separatorLength = System.lineSeparator().length();
+        int index = 0;
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(
+                logPath,
+                java.nio.file.StandardOpenOption.APPEND,
+                java.nio.file.StandardOpenOption.CREATE), StandardCharsets.UTF_8), BULK_BUFFER_CHARS)) {
+            for (SessionLogEntry entry : entries) {
+                String row = entry.toCsvRow();
+                writer.write(row);
+                writer.newLine();
+                offsets[index++] = offset;
+                offset += utf8Length(row) + separatorLength;
+            }
+        }
+        appendCount += entries.size();
+        long bytes = offset - startOffset;
+        PomodoroMetrics.SESSION_LOG.appendedBatch(entries.size(), bytes, System.nanoTime() - startNanos, offset);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = logPath.toString();
+            event.offset = startOffset;
+            event.bytes = bytes;
+            event.commit();
+        }
+        index = 0;
+        for (SessionLogEntry entry : entries) {
+            long entryOffset = offsets[index++];
+            for (SessionLogListener listener : listeners) {
+                listener.onEntryAppended(entry, entryOffset);
+            }
+        }
     }
 
     public synchronized List<SessionLogEntry> readAllEntries() throws IOException {
+        long startNanos = System.nanoTime();
+        PomodoroEvents.LogRead event = new PomodoroEvents.LogRead();
+        event.begin();
         ensureFileExists();
         List<SessionLogEntry> entries = new ArrayList<>();
+        int skipped = 0;
         for (String line : Files.readAllLines(logPath, StandardCharsets.UTF_8)) {
-            if (!line.isBlank()) {
-                try {
-                    entries.add(SessionLogEntry.fromCsvRow(line));
-                } catch (IllegalArgumentException ex) {
-                    System.err.println("Skipping invalid log line: " + line);
-                }
+            SessionLogEntry entry = parseLine(line);
+            if (entry != null) {
+                entries.add(entry);
+            } else if (!line.isBlank()) {
+                skipped++;
             }
         }
+        PomodoroMetrics.SESSION_LOG.read(entries.size(), System.nanoTime() - startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = logPath.toString();
+            event.operation = "readAllEntries";
+            event.rows = entries.size();
+            event.skippedRows = skipped;
+            event.bytes = Files.size(logPath);
+            event.commit();
+        }
         return entries;
     }
 
+    /**
+     * Lazily reads the log line by line, so memory use does not depend on the size of the file.
+     * The returned stream holds the file open and must be closed. Entries appended while the stream
+     * is being consumed may or may not be included.
+     */
+    public Stream<SessionLogEntry> streamEntries() throws IOException {
+        synchronized (this) {
+            ensureFileExists();
+        }
+        long startNanos = System.nanoTime();
+        PomodoroEvents.LogRead event = new PomodoroEvents.LogRead();
+        event.begin();
+        int[] rows = new int[1];
+        // The read spans the life of the stream, so it is recorded when the stream is closed.
+        return Files.lines(logPath, StandardCharsets.UTF_8)
+                .map(SessionLogger::parseLine)
+                .filter(Objects::nonNull)
+                .peek(entry -> rows[0]++)
+                .onClose(() -> {
+                    PomodoroMetrics.SESSION_LOG.read(rows[0], System.nanoTime() - startNanos);
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.path = logPath.toString();
+                        event.operation = "streamEntries";
+                        event.rows = rows[0];
+                        event.commit();
+                    }
+                });
+    }
+
+    private static SessionLogEntry parseLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return SessionLogEntry.fromCsvRow(line);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException ex) {
+            System.err.println("Skipping invalid log line: " + line);
+            return null;
+        }
+    }
+
+    private static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch < 0x80) {
+                length++;
+            } else if (ch < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
     private void ensureFileExists() throws IOException {
         Path parent = logPath.getParent();
         if (parent != null) {
@@ -69,7 +244,395 @@ public class SessionLogger {
         }
     }
 
+    /**
+     * Rewrites the log in timestamp order without exact duplicate rows. Memory use is bounded: the
+     * log is read once into sorted runs of at most {@value #COMPACTION_RUN_ROWS} rows, which are
+     * written to a temporary directory beside the log and merged into a new file there. Entries with
+     * equal timestamps keep their order, and rows that cannot be parsed are kept at the start of the
+     * file.
+     *
+     * <p>Appending may continue while the log is compacted. Once the merge is done the logger is
+     * locked briefly to copy any rows appended meanwhile, unsorted, to the end of the new file and
+     * to swap it in with an atomic rename. Readers that hold the old file open keep seeing the old
+     * contents; {@link SessionLogPager} and {@link StatisticsCache} notice the change on their next
+     * refresh.
+     *
+     * @throws IOException if the log cannot be read or replaced, or was replaced by someone else
+     *                     during compaction; the original log is then left untouched
+     */
+    public CompactionResult compact() throws IOException {
+        return compact(COMPACTION_RUN_ROWS);
+    }
+
+    CompactionResult compact(int runRows) throws IOException {
+        long startNanos = System.nanoTime();
+        PomodoroEvents.LogCompaction event = new PomodoroEvents.LogCompaction();
+        event.begin();
+        long snapshotLength;
+        Object fileKey;
+        synchronized (this) {
+            ensureFileExists();
+            snapshotLength = Files.size(logPath);
+            fileKey = Files.readAttributes(logPath, BasicFileAttributes.class).fileKey();
+        }
+
+        Path parent = logPath.toAbsolutePath().getParent();
+        Path workDirectory = Files.createTempDirectory(parent, logPath.getFileName() + ".compact-");
+        try {
+            Path invalidRows = workDirectory.resolve("invalid.csv");
+            List<Path> runs = new ArrayList<>();
+            long[] counts = new long[3];
+            writeSortedRuns(snapshotLength, runRows, workDirectory, invalidRows, runs, counts);
+
+            Path compacted = workDirectory.resolve(logPath.getFileName());
+            long rowsWritten = 0;
+            long duplicates = 0;
+            try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                if (counts[2] > 0) {
+                    try (BufferedReader invalid = Files.newBufferedReader(invalidRows, StandardCharsets.UTF_8)) {
+                        String line;
+                        while ((line = invalid.readLine()) != null) {
+                            writer.write(line);
+                            writer.newLine();
+                        }
+                    }
+                }
+                // Runs cover consecutive parts of the log and the merge breaks timestamp ties in run
+                // order, so equal timestamps keep their original order and duplicates end up among them.
+                try (MultiLogReader merged = MultiLogReader.ofRowFiles(runs)) {
+                    LocalDateTime groupTimestamp = null;
+                    Set<String> groupRows = new HashSet<>();
+                    for (SessionLogEntry entry : merged) {
+                        String row = entry.toCsvRow();
+                        if (!entry.getTimestamp().equals(groupTimestamp)) {
+                            groupTimestamp = entry.getTimestamp();
+                            groupRows.clear();
+                        }
+                        if (!groupRows.add(row)) {
+                            duplicates++;
+                            continue;
+                        }
+                        writer.write(row);
+                        writer.newLine();
+                        rowsWritten++;
+                    }
+                }
+            }
+
+            long bytesAfter;
+            long appendedBytes;
+            synchronized (this) {
+                if (!Objects.equals(Files.readAttributes(logPath, BasicFileAttributes.class).fileKey(), fileKey)
+                        || Files.size(logPath) < snapshotLength) {
+                    throw new IOException("The session log was replaced during compaction; it was left unchanged.");
+                }
+                try (FileChannel source = FileChannel.open(logPath, StandardOpenOption.READ);
+                     FileChannel target = FileChannel.open(compacted, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    long size = source.size();
+                    long position = snapshotLength;
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                    appendedBytes = size - snapshotLength;
+                    target.force(true);
+                    bytesAfter = target.size();
+                }
+                Files.move(compacted, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                rewriteCount++;
+                for (SessionLogListener listener : listeners) {
+                    listener.onLogRewritten();
+                }
+            }
+            PomodoroMetrics.SESSION_LOG.logSizeObserved(bytesAfter);
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = logPath.toString();
+                event.rowsRead = counts[0];
+                event.duplicateRows = duplicates;
+                event.runs = runs.size();
+                event.bytesBefore = snapshotLength;
+                event.bytesAfter = bytesAfter;
+                event.commit();
+            }
+            return new CompactionResult(counts[0], duplicates, counts[1], counts[2], snapshotLength, bytesAfter,
+                    appendedBytes, runs.size(), Duration.ofNanos(System.nanoTime() - startNanos));
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+    }
+
+    /**
+     * Reads the first {@code length} bytes of the log and writes them as sorted runs.
+     *
+     * @param counts receives rows read, rows out of timestamp order and unparseable rows
+     */
+    private void writeSortedRuns(long length, int runRows, Path workDirectory, Path invalidRows,
+                                 List<Path> runs, long[] counts) throws IOException {
+        List<SessionLogEntry> run = new ArrayList<>(Math.min(runRows, 1 << 16));
+        LocalDateTime latest = null;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     new LimitedInputStream(Channels.newInputStream(channel), length), StandardCharsets.UTF_8), BULK_BUFFER_CHARS);
+             BufferedWriter invalid = Files.newBufferedWriter(invalidRows, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                SessionLogEntry entry;
+                try {
+                    entry = SessionLogEntry.fromCsvRow(line);
+                } catch (IllegalArgumentException | java.time.format.DateTimeParseException ex) {
+                    invalid.write(line);
+                    invalid.newLine();
+                    counts[2]++;
+                    continue;
+                }
+                counts[0]++;
+                if (latest != null && entry.getTimestamp().isBefore(latest)) {
+                    counts[1]++;
+                } else {
+                    latest = entry.getTimestamp();
+                }
+                run.add(entry);
+                if (run.size() == runRows) {
+                    runs.add(writeRun(run, workDirectory, runs.size()));
+                    run.clear();
+                }
+            }
+        }
+        if (!run.isEmpty()) {
+            runs.add(writeRun(run, workDirectory, runs.size()));
+        }
+    }
+
+    private static Path writeRun(List<SessionLogEntry> run, Path workDirectory, int index) throws IOException {
+        // List.sort is stable, so equal timestamps stay in log order.
+        run.sort(Comparator.comparing(SessionLogEntry::getTimestamp));
+        Path path = workDirectory.resolve("run-" + index + ".csv");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(path), StandardCharsets.UTF_8), BULK_BUFFER_CHARS)) {
+            for (SessionLogEntry entry : run) {
+                writer.write(entry.toCsvRow());
+                writer.newLine();
+            }
+        }
+        return path;
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ex) {
+                    System.err.println("Unable to delete temporary file " + path + ": " + ex.getMessage());
+                }
+            });
+        } catch (IOException ex) {
+            System.err.println("Unable to delete temporary directory " + directory + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns a cheap fingerprint of the log contents. Any append or compaction through this logger,
+     * or any external change to the file's length or modification time, produces a different version.
+     */
+    public LogVersion getLogVersion() throws IOException {
+        long count = appendCount;
+        long rewrites = rewriteCount;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(logPath, BasicFileAttributes.class);
+            return new LogVersion(count, attributes.size(), attributes.lastModifiedTime().toMillis(), rewrites);
+        } catch (java.nio.file.NoSuchFileException ex) {
+            return new LogVersion(count, -1, -1, rewrites);
+        }
+    }
+
     public Path getLogPath() {
         return logPath;
     }
+
+    /**
+     * Outcome of {@link #compact()}.
+     */
+    public static final class CompactionResult {
+        private final long rowsRead;
+        private final long duplicateRows;
+        private final long outOfOrderRows;
+        private final long invalidRows;
+        private final long bytesBefore;
+        private final long bytesAfter;
+        private final long appendedBytes;
+        private final int runs;
+        private final Duration elapsed;
+
+        public CompactionResult(long rowsRead, long duplicateRows, long outOfOrderRows, long invalidRows,
+                                long bytesBefore, long bytesAfter, long appendedBytes, int runs,
+                                Duration elapsed) {
+            this.rowsRead = rowsRead;
+            this.duplicateRows = duplicateRows;
+            this.outOfOrderRows = outOfOrderRows;
+            this.invalidRows = invalidRows;
+            this.bytesBefore = bytesBefore;
+            this.bytesAfter = bytesAfter;
+            this.appendedBytes = appendedBytes;
+            this.runs = runs;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * @return valid rows in the log when compaction started
+         */
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        /**
+         * @return rows removed because an identical row with the same timestamp was kept
+         */
+        public long getRowsReclaimed() {
+            return duplicateRows;
+        }
+
+        /**
+         * @return rows that were earlier than a row before them and have been moved into place
+         */
+        public long getOutOfOrderRows() {
+            return outOfOrderRows;
+        }
+
+        /**
+         * @return rows that could not be parsed; they are kept, at the start of the log
+         */
+        public long getInvalidRows() {
+            return invalidRows;
+        }
+
+        public long getBytesBefore() {
+            return bytesBefore;
+        }
+
+        /**
+         * @return size of the new log, including rows appended during compaction
+         */
+        public long getBytesAfter() {
+            return bytesAfter;
+        }
+
+        /**
+         * @return bytes appended while compaction ran, copied unsorted to the end of the new log
+         */
+        public long getAppendedBytes() {
+            return appendedBytes;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Compacted %,d rows in %.1f s: %,d duplicates removed, %,d out of order, %,d invalid kept, %,d -> %,d bytes",
+                    rowsRead, elapsed.toNanos() / 1e9, duplicateRows, outOfOrderRows, invalidRows, bytesBefore, bytesAfter);
+        }
+    }
+
+    /**
+     * Stops after a fixed number of bytes, so compaction only reads the rows present when it began.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int value = super.read();
+            if (value >= 0) {
+                remaining--;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
+    public static final class LogVersion {
+        private final long appendCount;
+        private final long length;
+        private final long lastModifiedMillis;
+        private final long rewriteCount;
+
+        public LogVersion(long appendCount, long length, long lastModifiedMillis) {
+            this(appendCount, length, lastModifiedMillis, 0);
+        }
+
+        public LogVersion(long appendCount, long length, long lastModifiedMillis, long rewriteCount) {
+            this.appendCount = appendCount;
+            this.length = length;
+            this.lastModifiedMillis = lastModifiedMillis;
+            this.rewriteCount = rewriteCount;
+        }
+
+        public long getAppendCount() {
+            return appendCount;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getLastModifiedMillis() {
+            return lastModifiedMillis;
+        }
+
+        /**
+         * @return number of times this logger has rewritten the log, e.g. by {@link SessionLogger#compact()}
+         */
+        public long getRewriteCount() {
+            return rewriteCount;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof LogVersion)) {
+                return false;
+            }
+            LogVersion version = (LogVersion) other;
+            return appendCount == version.appendCount
+                    && length == version.length
+                    && lastModifiedMillis == version.lastModifiedMillis
+                    && rewriteCount == version.rewriteCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(appendCount, length, lastModifiedMillis, rewriteCount);
+        }
+    }
 }
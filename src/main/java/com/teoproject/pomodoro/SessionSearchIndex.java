@@ -0,0 +1,322 @@
+package com.teoproject.pomodoro;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory search index over the session log. Goal descriptions are split into lower-case word
+ * tokens, each mapping to the ascending list of log rows that contain it, and a date index maps each
+ * day to its rows. Queries intersect posting lists instead of scanning the log, so their cost
+ * depends on the number of matches rather than on the size of the history.
+ *
+ * <p>Row numbers are those of {@link SessionLogPager}. The index grows from the pager with
+ * {@link #catchUp(SessionLogPager)} and, when registered with {@link SessionLogger#addListener},
+ * from each append as it happens; byte offsets make sure a row is never added twice. Appends can
+ * only take the next row number once every earlier row is indexed, so appends that arrive before
+ * or during a catch-up are held back and added, in log order, when the catch-up completes.
+ */
+public class SessionSearchIndex implements SessionLogListener {
+    private static final int CATCH_UP_BATCH = 4096;
+    private static final int MAX_PENDING_APPENDS = 4096;
+
+    // Hash lookups on the indexing path; the sorted view shares the same lists for prefix queries.
+    private final HashMap<String, IntList> postings = new HashMap<>();
+    private final TreeMap<String, IntList> sortedTerms = new TreeMap<>();
+    private final TreeMap<Long, IntList> rowsByDay = new TreeMap<>();
+    private long lastDay = Long.MIN_VALUE;
+    private IntList lastDayRows;
+    private long[] rowDays = new long[1024];
+    private long[] rowOffsets = new long[1024];
+    private int rowCount;
+    private long lastRowOffset = -1;
+    private int pagerGeneration;
+    // True once a catch-up has indexed every pager row, so appends can be added as they come.
+    private boolean current;
+    private final TreeMap<Long, SessionLogEntry> pendingAppends = new TreeMap<>();
+    private boolean pendingOverflowed;
+
+    @Override
+    public synchronized void onEntryAppended(SessionLogEntry entry, long offset) {
+        if (current) {
+            add(entry, offset);
+        } else if (pendingAppends.size() < MAX_PENDING_APPENDS) {
+            pendingAppends.put(offset, entry);
+        } else {
+            // Dropped appends are read from the pager by the next catch-up instead.
+            pendingOverflowed = true;
+        }
+    }
+
+    /**
+     * Adds any pager rows the index has not seen yet, followed by the appends that arrived since the
+     * pager was refreshed. If the log was rewritten, so that the pager rebuilt its rows or row
+     * offsets no longer line up with it, the index is rebuilt.
+     */
+    public void catchUp(SessionLogPager pager) throws IOException {
+        int available;
+        long pagerLength;
+        synchronized (pager) {
+            available = pager.getRowCount();
+            pagerLength = pager.getIndexedLength();
+        }
+        synchronized (this) {
+            current = false;
+            int generation = pager.getGeneration();
+            if (generation != pagerGeneration) {
+                reset();
+                pagerGeneration = generation;
+            }
+            // Appends may already have indexed rows the pager has not picked up; only compare the
+            // rows both sides know about.
+            int shared = Math.min(available, rowCount);
+            if (shared > 0 && pager.getRowStart(shared - 1) != rowOffsets[shared - 1]) {
+                reset();
+            }
+        }
+        int next = size();
+        while (next < available) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new java.io.InterruptedIOException("Search indexing was cancelled.");
+            }
+            int count = Math.min(CATCH_UP_BATCH, available - next);
+            SessionLogEntry[] rows = pager.readRows(next, count);
+            synchronized (this) {
+                for (int i = 0; i < count; i++) {
+                    add(rows[i], pager.getRowStart(next + i));
+                }
+                if (rowCount == next) {
+                    // The pager's rows no longer follow the indexed ones; the next catch-up starts over.
+                    reset();
+                    return;
+                }
+                next = rowCount;
+            }
+        }
+        synchronized (this) {
+            if (!pendingOverflowed) {
+                for (Map.Entry<Long, SessionLogEntry> append : pendingAppends.tailMap(pagerLength, true).entrySet()) {
+                    add(append.getValue(), append.getKey());
+                }
+                current = true;
+            }
+            pendingAppends.clear();
+            pendingOverflowed = false;
+        }
+    }
+
+    private void add(SessionLogEntry entry, long offset) {
+        if (offset <= lastRowOffset) {
+            return;
+        }
+        int row = rowCount++;
+        lastRowOffset = offset;
+        if (row == rowDays.length) {
+            rowDays = Arrays.copyOf(rowDays, row * 2);
+            rowOffsets = Arrays.copyOf(rowOffsets, row * 2);
+        }
+        rowOffsets[row] = offset;
+        if (entry == null) {
+            // Unreadable rows keep their row number but are not searchable.
+            rowDays[row] = Long.MIN_VALUE;
+            return;
+        }
+        long day = entry.getTimestamp().toLocalDate().toEpochDay();
+        rowDays[row] = day;
+        if (day != lastDay) {
+            // Log rows arrive in time order, so consecutive rows nearly always share a day.
+            lastDay = day;
+            lastDayRows = rowsByDay.computeIfAbsent(day, key -> new IntList());
+        }
+        lastDayRows.add(row);
+
+        for (String token : tokenize(entry.getGoalDescription())) {
+            IntList list = postings.get(token);
+            if (list == null) {
+                list = new IntList();
+                postings.put(token, list);
+                sortedTerms.put(token, list);
+            }
+            if (list.size == 0 || list.values[list.size - 1] != row) {
+                list.add(row);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        reset();
+        current = false;
+        pendingAppends.clear();
+        pendingOverflowed = false;
+    }
+
+    private void reset() {
+        postings.clear();
+        sortedTerms.clear();
+        rowsByDay.clear();
+        lastDay = Long.MIN_VALUE;
+        lastDayRows = null;
+        rowCount = 0;
+        lastRowOffset = -1;
+    }
+
+    public synchronized int size() {
+        return rowCount;
+    }
+
+    /**
+     * Finds rows whose goal contains every word of {@code text} (each query word matches as a
+     * prefix, so "math" finds "mathematics") and whose date lies in {@code [fromDate, toDate]}.
+     * Blank text and {@code null} dates are not applied as filters.
+     *
+     * @return matching row numbers in ascending order
+     */
+    public synchronized int[] search(String text, LocalDate fromDate, LocalDate toDate) {
+        List<String> tokens = tokenize(text == null ? "" : text);
+        long fromDay = fromDate == null ? Long.MIN_VALUE + 1 : fromDate.toEpochDay();
+        long toDay = toDate == null ? Long.MAX_VALUE : toDate.toEpochDay();
+        if (fromDay > toDay) {
+            return new int[0];
+        }
+
+        if (tokens.isEmpty()) {
+            if (fromDate == null && toDate == null) {
+                return allRows();
+            }
+            return rowsForDays(fromDay, toDay);
+        }
+
+        // Start from the most selective word and only probe the other words' lists for the
+        // surviving candidates, so common words never have to be materialised.
+        List<Collection<IntList>> matches = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Collection<IntList> lists = termsWithPrefix(token);
+            if (lists.isEmpty()) {
+                return new int[0];
+            }
+            matches.add(lists);
+        }
+        matches.sort(Comparator.comparingLong(SessionSearchIndex::totalSize));
+        int[] result = union(matches.get(0));
+        for (int i = 1; i < matches.size() && result.length > 0; i++) {
+            result = retainContained(result, matches.get(i));
+        }
+
+        if (fromDate != null || toDate != null) {
+            int kept = 0;
+            int[] filtered = new int[result.length];
+            for (int row : result) {
+                long day = rowDays[row];
+                if (day >= fromDay && day <= toDay) {
+                    filtered[kept++] = row;
+                }
+            }
+            result = Arrays.copyOf(filtered, kept);
+        }
+        return result;
+    }
+
+    private int[] allRows() {
+        int[] rows = new int[rowCount];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (rowDays[row] != Long.MIN_VALUE) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    private int[] rowsForDays(long fromDay, long toDay) {
+        return union(rowsByDay.subMap(fromDay, true, toDay, true).values());
+    }
+
+    private Collection<IntList> termsWithPrefix(String prefix) {
+        NavigableMap<String, IntList> matches = sortedTerms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        return matches.values();
+    }
+
+    private static long totalSize(Collection<IntList> lists) {
+        long total = 0;
+        for (IntList list : lists) {
+            total += list.size;
+        }
+        return total;
+    }
+
+    private static int[] union(Collection<IntList> lists) {
+        if (lists.size() == 1) {
+            IntList only = lists.iterator().next();
+            return Arrays.copyOf(only.values, only.size);
+        }
+        int total = 0;
+        for (IntList list : lists) {
+            total += list.size;
+        }
+        int[] rows = new int[total];
+        int position = 0;
+        for (IntList list : lists) {
+            System.arraycopy(list.values, 0, rows, position, list.size);
+            position += list.size;
+        }
+        Arrays.sort(rows);
+        int unique = 0;
+        for (int i = 0; i < rows.length; i++) {
+            if (i == 0 || rows[i] != rows[i - 1]) {
+                rows[unique++] = rows[i];
+            }
+        }
+        return Arrays.copyOf(rows, unique);
+    }
+
+    private static int[] retainContained(int[] candidates, Collection<IntList> lists) {
+        int[] result = new int[candidates.length];
+        int count = 0;
+        for (int row : candidates) {
+            for (IntList list : lists) {
+                if (Arrays.binarySearch(list.values, 0, list.size, row) >= 0) {
+                    result[count++] = row;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.teoproject.pomodoro;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-memory, mergeable approximations of session statistics for inputs that are too large to
+ * summarise exactly, such as the combined logs of every student. Each shard of the input can be
+ * summarised independently and the results merged with {@link #merge(SessionSketches)}; memory use
+ * depends only on the configured accuracy, never on the number of entries.
+ *
+ * <ul>
+ *     <li>Focus minutes per session: {@link QuantileSketch}, relative error at most
+ *     {@code relativeAccuracy} on every quantile.</li>
+ *     <li>Distinct goals and distinct study days: {@link CardinalitySketch}, standard error about
+ *     {@code 1.04 / sqrt(2^precision)}.</li>
+ *     <li>Most frequent goals: {@link TopKSketch}, each count overestimated by at most
+ *     {@code totalSessions / capacity}.</li>
+ * </ul>
+ *
+ * <p>Goals are counted by the same trimmed, lower-cased key that {@link AnalyticsEngine} groups
+ * them by, so the sketches and the analytics report agree on what counts as one goal.
+ */
+public class SessionSketches {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final int DEFAULT_PRECISION = 12;
+    public static final int DEFAULT_TOP_K_CAPACITY = 64;
+
+    private final QuantileSketch focusMinutes;
+    private final CardinalitySketch distinctGoals;
+    private final CardinalitySketch distinctDays;
+    private final TopKSketch frequentGoals;
+
+    public SessionSketches() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_PRECISION, DEFAULT_TOP_K_CAPACITY);
+    }
+
+    public SessionSketches(double relativeAccuracy, int precision, int topKCapacity) {
+        this.focusMinutes = new QuantileSketch(relativeAccuracy);
+        this.distinctGoals = new CardinalitySketch(precision);
+        this.distinctDays = new CardinalitySketch(precision);
+        this.frequentGoals = new TopKSketch(topKCapacity);
+    }
+
+    public void accept(SessionLogEntry entry) {
+        focusMinutes.add(entry.getFocusMinutes());
+        String goal = AnalyticsEngine.normalizeGoal(entry.getGoalDescription());
+        distinctGoals.add(goal);
+        distinctDays.add(entry.getTimestamp().toLocalDate().toEpochDay());
+        frequentGoals.add(goal);
+    }
+
+    public void merge(SessionSketches other) {
+        focusMinutes.merge(other.focusMinutes);
+        distinctGoals.merge(other.distinctGoals);
+        distinctDays.merge(other.distinctDays);
+        frequentGoals.merge(other.frequentGoals);
+    }
+
+    public QuantileSketch getFocusMinutes() {
+        return focusMinutes;
+    }
+
+    public CardinalitySketch getDistinctGoals() {
+        return distinctGoals;
+    }
+
+    public CardinalitySketch getDistinctDays() {
+        return distinctDays;
+    }
+
+    /**
+     * @return the most frequent goals, keyed by their normalized (trimmed, lower-case) description
+     */
+    public TopKSketch getFrequentGoals() {
+        return frequentGoals;
+    }
+
+    static long hash64(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix64(hash);
+    }
+
+    static long mix64(long value) {
+        long z = value;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Logarithmically bucketed quantile sketch (in the style of DDSketch). A value {@code x} falls
+     * into bucket {@code ceil(log_gamma(x))} with {@code gamma = (1 + a) / (1 - a)}, so any quantile
+     * is reported within relative error {@code a} of a true sample value. Values above
+     * {@link #MAX_TRACKED_VALUE} are clamped into the last bucket.
+     */
+    public static class QuantileSketch {
+        static final long MAX_TRACKED_VALUE = 10_000_000L;
+
+        private final double relativeAccuracy;
+        private final double logGamma;
+        private final long[] buckets;
+        private long zeroCount;
+        private long count;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        public QuantileSketch(double relativeAccuracy) {
+            if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+                throw new IllegalArgumentException("Relative accuracy must be between 0 and 1.");
+            }
+            this.relativeAccuracy = relativeAccuracy;
+            this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+            this.buckets = new long[bucketIndex(MAX_TRACKED_VALUE) + 1];
+        }
+
+        private int bucketIndex(long value) {
+            return (int) Math.ceil(Math.log(value) / logGamma);
+        }
+
+        public void add(long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Sketch values cannot be negative.");
+            }
+            if (value == 0) {
+                zeroCount++;
+            } else {
+                buckets[bucketIndex(Math.min(value, MAX_TRACKED_VALUE))]++;
+            }
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        public void merge(QuantileSketch other) {
+            if (other.relativeAccuracy != relativeAccuracy) {
+                throw new IllegalArgumentException("Cannot merge quantile sketches with different accuracy.");
+            }
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            zeroCount += other.zeroCount;
+            count += other.count;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * @param quantile value between 0 and 1, e.g. 0.5 for the median
+         * @return estimated value at the quantile, or 0 when the sketch is empty
+         */
+        public double getQuantile(double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.floor(quantile * (count - 1));
+            if (rank < zeroCount) {
+                return 0;
+            }
+            long seen = zeroCount;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen > rank) {
+                    double estimate = 2 * Math.exp(i * logGamma) / (1 + Math.exp(logGamma));
+                    return Math.max(min, Math.min(max, estimate));
+                }
+            }
+            return max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getRelativeAccuracy() {
+            return relativeAccuracy;
+        }
+    }
+
+    /**
+     * HyperLogLog distinct-value counter using {@code 2^precision} one-byte registers. The
+     * standard error of {@link #estimate()} is about {@code 1.04 / sqrt(2^precision)}, i.e. 1.6%
+     * at the default precision of 12 (4 KiB).
+     */
+    public static class CardinalitySketch {
+        private final int precision;
+        private final byte[] registers;
+
+        public CardinalitySketch(int precision) {
+            if (precision < 4 || precision > 18) {
+                throw new IllegalArgumentException("Precision must be between 4 and 18.");
+            }
+            this.precision = precision;
+            this.registers = new byte[1 << precision];
+        }
+
+        public void add(String value) {
+            addHash(hash64(value));
+        }
+
+        public void add(long value) {
+            addHash(mix64(value + 0x9e3779b97f4a7c15L));
+        }
+
+        private void addHash(long hash) {
+            int index = (int) (hash >>> (64 - precision));
+            int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+        }
+
+        public void merge(CardinalitySketch other) {
+            if (other.precision != precision) {
+                throw new IllegalArgumentException("Cannot merge cardinality sketches with different precision.");
+            }
+            for (int i = 0; i < registers.length; i++) {
+                if (other.registers[i] > registers[i]) {
+                    registers[i] = other.registers[i];
+                }
+            }
+        }
+
+        public long estimate() {
+            int m = registers.length;
+            double sum = 0;
+            int zeros = 0;
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+            double alpha = 0.7213 / (1 + 1.079 / m);
+            double raw = alpha * m * (double) m / sum;
+            if (raw <= 2.5 * m && zeros > 0) {
+                return Math.round(m * Math.log(m / (double) zeros));
+            }
+            return Math.round(raw);
+        }
+
+        public double getStandardError() {
+            return 1.04 / Math.sqrt(registers.length);
+        }
+    }
+
+    /**
+     * Space-Saving heavy-hitters summary keeping at most {@code capacity} counters. Every item whose
+     * true frequency exceeds {@code total / capacity} is guaranteed to be tracked, and each reported
+     * count overestimates the true count by at most {@link Item#getMaxError()}.
+     */
+    public static class TopKSketch {
+        private final int capacity;
+        private final Map<String, Counter> counters = new HashMap<>();
+        private final Counter[] heap;
+        private int size;
+        private long total;
+
+        public TopKSketch(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive.");
+            }
+            this.capacity = capacity;
+            this.heap = new Counter[capacity];
+        }
+
+        public void add(String item) {
+            add(item, 1, 0);
+        }
+
+        private void add(String item, long increment, long error) {
+            total += increment;
+            Counter counter = counters.get(item);
+            if (counter == null) {
+                if (size < capacity) {
+                    counter = new Counter(item, increment, error, size);
+                    heap[size++] = counter;
+                    counters.put(item, counter);
+                    siftUp(counter.heapIndex);
+                    return;
+                } else {
+                    // Replace the smallest counter; its count becomes the new item's error bound.
+                    counter = heap[0];
+                    counters.remove(counter.item);
+                    counter.item = item;
+                    counter.error = counter.count + error;
+                }
+                counters.put(item, counter);
+            }
+            counter.count += increment;
+            siftDown(counter.heapIndex);
+        }
+
+        public void merge(TopKSketch other) {
+            long thisMin = size == capacity ? heap[0].count : 0;
+            long otherMin = other.size == other.capacity ? other.heap[0].count : 0;
+
+            Map<String, long[]> combined = new HashMap<>();
+            for (Counter counter : counters.values()) {
+                Counter match = other.counters.get(counter.item);
+                long count = counter.count + (match != null ? match.count : otherMin);
+                long error = counter.error + (match != null ? match.error : otherMin);
+                combined.put(counter.item, new long[] {count, error});
+            }
+            for (Counter counter : other.counters.values()) {
+                if (!counters.containsKey(counter.item)) {
+                    combined.put(counter.item, new long[] {counter.count + thisMin, counter.error + thisMin});
+                }
+            }
+
+            List<Map.Entry<String, long[]>> ranked = new ArrayList<>(combined.entrySet());
+            ranked.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed());
+
+            long mergedTotal = total + other.total;
+            counters.clear();
+            Arrays.fill(heap, null);
+            size = 0;
+            for (Map.Entry<String, long[]> entry : ranked.subList(0, Math.min(capacity, ranked.size()))) {
+                Counter counter = new Counter(entry.getKey(), entry.getValue()[0], entry.getValue()[1], size);
+                heap[size++] = counter;
+                counters.put(counter.item, counter);
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+            total = mergedTotal;
+        }
+
+        /**
+         * @param k number of items to return
+         * @return up to {@code k} items ordered by estimated count, highest first
+         */
+        public List<Item> getTop(int k) {
+            List<Item> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(new Item(heap[i].item, heap[i].count, heap[i].error));
+            }
+            items.sort(Comparator.comparingLong(Item::getCount).reversed());
+            return items.subList(0, Math.min(k, items.size()));
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getMaxOverestimate() {
+            return total / capacity;
+        }
+
+        private void siftDown(int index) {
+            Counter counter = heap[index];
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && heap[left].count < heap[smallest].count) {
+                    smallest = left;
+                }
+                if (right < size && heap[right].count < heap[smallest].count) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    break;
+                }
+                heap[index] = heap[smallest];
+                heap[index].heapIndex = index;
+                heap[smallest] = counter;
+                counter.heapIndex = smallest;
+                index = smallest;
+            }
+        }
+
+        private void siftUp(int index) {
+            Counter counter = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (heap[parent].count <= counter.count) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                heap[index].heapIndex = index;
+                index = parent;
+            }
+            heap[index] = counter;
+            counter.heapIndex = index;
+        }
+
+        private static final class Counter {
+            private String item;
+            private long count;
+            private long error;
+            private int heapIndex;
+
+            private Counter(String item, long count, long error, int heapIndex) {
+                this.item = item;
+                this.count = count;
+                this.error = error;
+                this.heapIndex = heapIndex;
+            }
+        }
+
+        public static class Item {
+            private final String value;
+            private final long count;
+            private final long maxError;
+
+            public Item(String value, long count, long maxError) {
+                this.value = value;
+                this.count = count;
+                this.maxError = maxError;
+            }
+
+            public String getValue() {
+                return value;
+            }
+
+            /**
+             * @return estimated frequency, never lower than the true frequency
+             */
+            public long getCount() {
+                return count;
+            }
+
+            public long getMaxError() {
+                return maxError;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.teoproject.pomodoro;
+
+/**
+ * A session entry tagged with the log it was read from, as produced by {@link MultiLogReader}.
+ */
+public class SourcedLogEntry extends SessionLogEntry {
+    private final String source;
+
+    public SourcedLogEntry(String source, SessionLogEntry entry) {
+        super(entry.getTimestamp(), entry.getGoalDescription(), entry.getFocusMinutes(), entry.getIntervalsCompleted());
+        this.source = source;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
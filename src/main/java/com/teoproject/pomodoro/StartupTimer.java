@@ -0,0 +1,62 @@
+package com.teoproject.pomodoro;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures how long the application takes to put its first frame on screen, both from JVM process
+ * start and from entry into {@code main}. The result is printed when the
+ * {@value #REPORT_PROPERTY} system property is {@code true}. With {@value #EXIT_PROPERTY} set the
+ * application exits as soon as the frame is shown, which the class-data-sharing training run uses.
+ */
+public final class StartupTimer {
+    static final String REPORT_PROPERTY = "pomodoro.startupTiming";
+    static final String EXIT_PROPERTY = "pomodoro.exitAfterFirstFrame";
+
+    private static long mainStartNanos;
+    private static volatile long fromMainMillis = -1;
+    private static volatile long fromProcessStartMillis = -1;
+
+    private StartupTimer() {
+    }
+
+    public static void markMainStarted() {
+        mainStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the first frame. Only the first call has an effect.
+     */
+    public static synchronized void markFirstFrame() {
+        if (fromMainMillis >= 0) {
+            return;
+        }
+        fromMainMillis = (System.nanoTime() - mainStartNanos) / 1_000_000;
+        fromProcessStartMillis = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+
+        if (Boolean.getBoolean(REPORT_PROPERTY)) {
+            System.err.printf("Time to first frame: %d ms since JVM start, %d ms since main%n",
+                    fromProcessStartMillis, fromMainMillis);
+        }
+    }
+
+    public static boolean isExitAfterFirstFrame() {
+        return Boolean.getBoolean(EXIT_PROPERTY);
+    }
+
+    /**
+     * @return milliseconds from entering {@code main} to the first frame, or -1 if not shown yet
+     */
+    public static long getTimeToFirstFrameMillis() {
+        return fromMainMillis;
+    }
+
+    /**
+     * @return milliseconds from process start to the first frame, or -1 if unknown
+     */
+    public static long getTimeSinceProcessStartMillis() {
+        return fromProcessStartMillis;
+    }
+}
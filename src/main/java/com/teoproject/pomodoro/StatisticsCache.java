@@ -0,0 +1,251 @@
+package com.teoproject.pomodoro;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memoises statistics queries in front of {@link StatisticsCalculator} and {@link AnalyticsEngine}.
+ * Results are keyed by query and are only valid for the {@link SessionLogger.LogVersion} they were
+ * computed from. Between appends a repeated query costs one file attribute lookup and a map access.
+ *
+ * <p>When the cache is registered with {@link SessionLogger#addListener}, appended entries are
+ * added to the parsed entries and the timestamp index instead of reloading the log, so a finished
+ * session only invalidates the memoised results. The log is read again from disk only when it was
+ * rewritten, changed by another process, or appended to so often between queries that the pending
+ * entries were discarded.
+ */
+public class StatisticsCache implements SessionLogListener {
+    static final int DEFAULT_MAX_RESULTS = 64;
+    private static final int MAX_PENDING_APPENDS = 4096;
+
+    private final SessionLogger sessionLogger;
+    private final StatisticsCalculator statisticsCalculator;
+    private final AnalyticsEngine analyticsEngine;
+    private final Map<Object, Object> results;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Filled on the appending thread while the logger is locked, so it is not guarded by this cache.
+    private final Object pendingLock = new Object();
+    private List<PendingAppend> pendingAppends = new ArrayList<>();
+    private boolean pendingOverflowed;
+
+    private SessionLogger.LogVersion cachedVersion;
+    private List<SessionLogEntry> cachedEntries;
+    private SessionLogIndex cachedIndex;
+    private long loadedLength;
+
+    public StatisticsCache(SessionLogger sessionLogger, StatisticsCalculator statisticsCalculator, AnalyticsEngine analyticsEngine) {
+        this(sessionLogger, statisticsCalculator, analyticsEngine, DEFAULT_MAX_RESULTS);
+    }
+
+    public StatisticsCache(SessionLogger sessionLogger, StatisticsCalculator statisticsCalculator,
+                           AnalyticsEngine analyticsEngine, int maxResults) {
+        if (maxResults <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.sessionLogger = sessionLogger;
+        this.statisticsCalculator = statisticsCalculator;
+        this.analyticsEngine = analyticsEngine;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxResults;
+            }
+        };
+    }
+
+    /**
+     * @return every entry in the log, parsed at most once per log version
+     */
+    public synchronized List<SessionLogEntry> getEntries() throws IOException {
+        validate();
+        if (cachedEntries == null) {
+            List<SessionLogEntry> entries;
+            // Holding the logger keeps appends out, so the length matches what was read and later
+            // appends can be told apart by their offsets.
+            synchronized (sessionLogger) {
+                takePendingAppends();
+                entries = sessionLogger.readAllEntries();
+                loadedLength = Files.size(sessionLogger.getLogPath());
+                cachedVersion = sessionLogger.getLogVersion();
+            }
+            cachedEntries = Collections.unmodifiableList(entries);
+        }
+        return cachedEntries;
+    }
+
+    @Override
+    public void onEntryAppended(SessionLogEntry entry, long offset) {
+        synchronized (pendingLock) {
+            if (pendingAppends.size() < MAX_PENDING_APPENDS) {
+                pendingAppends.add(new PendingAppend(entry, offset));
+            } else {
+                pendingOverflowed = true;
+            }
+        }
+    }
+
+    /**
+     * @return the appends recorded since the last call, or {@code null} if some were discarded
+     */
+    private List<PendingAppend> takePendingAppends() {
+        synchronized (pendingLock) {
+            List<PendingAppend> taken = pendingOverflowed ? null : pendingAppends;
+            pendingAppends = new ArrayList<>();
+            pendingOverflowed = false;
+            return taken;
+        }
+    }
+
+    /**
+     * @return a timestamp index over the log, rebuilt at most once per log version
+     */
+    public synchronized SessionLogIndex getIndex() throws IOException {
+        return indexFor(getEntries());
+    }
+
+    public synchronized StatisticsCalculator.TimeSeries getTimeSeries(TimeRangeQuery query) throws IOException {
+        Object key = new QueryKey("series", query);
+        return lookup(key, entries -> statisticsCalculator.calculateTimeSeries(indexFor(entries), query));
+    }
+
+    public synchronized StatisticsCalculator.WeeklyStatistics getWeeklyStatistics(LocalDate referenceDate) throws IOException {
+        Object key = new QueryKey("weekly", referenceDate, Locale.getDefault());
+        return lookup(key, entries -> statisticsCalculator.calculateWeeklyStatistics(entries, referenceDate));
+    }
+
+    public synchronized AnalyticsReport getAnalytics(LocalDate referenceDate, PomodoroConfiguration configuration,
+                                                     Set<AnalyticsEngine.Metric> metrics) throws IOException {
+        // The configuration is mutable, so only the values the engine reads go into the key.
+        Object key = new QueryKey("analytics", referenceDate, configuration.getGoalDescription(),
+                configuration.getGoalTargetMinutes(), EnumSet.copyOf(metrics));
+        return lookup(key, entries -> analyticsEngine.analyze(entries, referenceDate, configuration, metrics));
+    }
+
+    public synchronized void invalidate() {
+        takePendingAppends();
+        cachedVersion = null;
+        cachedEntries = null;
+        cachedIndex = null;
+        results.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private <T> T lookup(Object key, Function<List<SessionLogEntry>, T> loader) throws IOException {
+        validate();
+        @SuppressWarnings("unchecked")
+        T cached = (T) results.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        T computed = loader.apply(getEntries());
+        results.put(key, computed);
+        return computed;
+    }
+
+    private SessionLogIndex indexFor(List<SessionLogEntry> entries) {
+        if (cachedIndex == null) {
+            cachedIndex = new SessionLogIndex(entries);
+        }
+        return cachedIndex;
+    }
+
+    private void validate() throws IOException {
+        SessionLogger.LogVersion version;
+        List<PendingAppend> appends;
+        synchronized (sessionLogger) {
+            version = sessionLogger.getLogVersion();
+            if (version.equals(cachedVersion)) {
+                return;
+            }
+            appends = takePendingAppends();
+        }
+        results.clear();
+        if (cachedEntries != null && appends != null && applyAppends(version, appends)) {
+            cachedVersion = version;
+            return;
+        }
+        cachedEntries = null;
+        cachedIndex = null;
+        cachedVersion = version;
+    }
+
+    /**
+     * Adds appended entries to the loaded ones if they are exactly what changed in the log.
+     *
+     * @return {@code false} if the log must be reloaded instead
+     */
+    private boolean applyAppends(SessionLogger.LogVersion version, List<PendingAppend> appends) {
+        // Every append since the entries were loaded was recorded, and the first one starts where
+        // the loaded part of the file ended; anything else means the log changed some other way.
+        if (cachedVersion == null || appends.isEmpty()
+                || version.getRewriteCount() != cachedVersion.getRewriteCount()
+                || version.getAppendCount() - cachedVersion.getAppendCount() != appends.size()
+                || appends.get(0).offset != loadedLength) {
+            return false;
+        }
+        List<SessionLogEntry> entries = new ArrayList<>(cachedEntries.size() + appends.size());
+        entries.addAll(cachedEntries);
+        for (PendingAppend append : appends) {
+            entries.add(append.entry);
+            if (cachedIndex != null) {
+                cachedIndex.add(append.entry);
+            }
+        }
+        cachedEntries = Collections.unmodifiableList(entries);
+        loadedLength = version.getLength();
+        return true;
+    }
+
+    private static final class PendingAppend {
+        private final SessionLogEntry entry;
+        private final long offset;
+
+        private PendingAppend(SessionLogEntry entry, long offset) {
+            this.entry = entry;
+            this.offset = offset;
+        }
+    }
+
+    private static final class QueryKey {
+        private final Object[] parts;
+
+        private QueryKey(Object... parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof QueryKey && Arrays.equals(parts, ((QueryKey) other).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(parts);
+        }
+    }
+}
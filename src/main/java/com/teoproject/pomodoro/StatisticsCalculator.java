@@ -1,7 +1,11 @@
 package com.teoproject.pomodoro;
 
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -10,16 +14,24 @@ import java.util.Locale;
  */
 public class StatisticsCalculator {
 
-    public WeeklyStatistics calculateWeeklyStatistics(List<SessionLogEntry> entries, LocalDate referenceDate) {
-        WeekFields weekFields = WeekFields.of(Locale.getDefault());
+    public WeeklyStatistics calculateWeeklyStatistics(Iterable<? extends SessionLogEntry> entries, LocalDate referenceDate) {
+        return calculateWeeklyStatistics(entries, referenceDate, WeekFields.of(Locale.getDefault()));
+    }
+
+    public WeeklyStatistics calculateWeeklyStatistics(Iterable<? extends SessionLogEntry> entries, LocalDate referenceDate, WeekFields weekFields) {
+        long startNanos = System.nanoTime();
+        PomodoroEvents.StatisticsComputation event = new PomodoroEvents.StatisticsComputation();
+        event.begin();
         int targetWeek = referenceDate.get(weekFields.weekOfWeekBasedYear());
         int targetYear = referenceDate.get(weekFields.weekBasedYear());
 
         long totalMinutes = 0;
         int sessions = 0;
         int intervals = 0;
+        long scanned = 0;
 
         for (SessionLogEntry entry : entries) {
+            scanned++;
             LocalDate entryDate = entry.getTimestamp().toLocalDate();
             int entryWeek = entryDate.get(weekFields.weekOfWeekBasedYear());
             int entryYear = entryDate.get(weekFields.weekBasedYear());
@@ -30,9 +42,197 @@ public class StatisticsCalculator {
             }
         }
 
+        PomodoroMetrics.STATISTICS.computed(System.nanoTime() - startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.computation = "weeklyStatistics";
+            event.entriesScanned = scanned;
+            event.entriesMatched = sessions;
+            event.commit();
+        }
         return new WeeklyStatistics(totalMinutes, sessions, intervals);
     }
 
+    /**
+     * Aggregates the query range from a timestamp index, reading only the rows inside the range.
+     */
+    public TimeSeries calculateTimeSeries(SessionLogIndex index, TimeRangeQuery query) {
+        PomodoroEvents.StatisticsComputation event = new PomodoroEvents.StatisticsComputation();
+        event.begin();
+        return timeSeries(index.entriesBetween(query.getLogFrom(), query.getLogTo()), query, event, "indexedTimeSeries");
+    }
+
+    /**
+     * Aggregates the query range from entries in any order, skipping those outside the range.
+     */
+    public TimeSeries calculateTimeSeries(Iterable<? extends SessionLogEntry> entries, TimeRangeQuery query) {
+        PomodoroEvents.StatisticsComputation event = new PomodoroEvents.StatisticsComputation();
+        event.begin();
+        return timeSeries(entries, query, event, "timeSeries");
+    }
+
+    private static TimeSeries timeSeries(Iterable<? extends SessionLogEntry> entries, TimeRangeQuery query,
+                                         PomodoroEvents.StatisticsComputation event, String computation) {
+        long startNanos = System.nanoTime();
+        TimeSeriesAggregator aggregator = new TimeSeriesAggregator(query);
+        long scanned = 0;
+        long matched = 0;
+        for (SessionLogEntry entry : entries) {
+            scanned++;
+            if (aggregator.accept(entry)) {
+                matched++;
+            }
+        }
+        TimeSeries series = aggregator.toTimeSeries();
+        PomodoroMetrics.STATISTICS.computed(System.nanoTime() - startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.computation = computation;
+            event.entriesScanned = scanned;
+            event.entriesMatched = matched;
+            event.commit();
+        }
+        return series;
+    }
+
+    /**
+     * Streaming accumulator for a {@link TimeRangeQuery}. Memory is proportional to the number of
+     * buckets in the range, not to the number of entries fed in.
+     */
+    public static class TimeSeriesAggregator {
+        private final TimeRangeQuery query;
+        private final List<ZonedDateTime> bucketStarts = new ArrayList<>();
+        private final long[] bucketStartSeconds;
+        private final long fromSeconds;
+        private final long toSeconds;
+        private final long[] minutes;
+        private final int[] sessions;
+        private final long[] intervals;
+
+        public TimeSeriesAggregator(TimeRangeQuery query) {
+            this.query = query;
+            ZonedDateTime start = query.bucketStart(query.getFrom());
+            while (start.isBefore(query.getTo())) {
+                if (bucketStarts.size() >= TimeRangeQuery.MAX_BUCKETS) {
+                    throw new IllegalArgumentException("Range has more than " + TimeRangeQuery.MAX_BUCKETS + " buckets.");
+                }
+                bucketStarts.add(start);
+                start = query.nextBucketStart(start);
+            }
+            bucketStarts.add(start);
+
+            int bucketCount = bucketStarts.size() - 1;
+            this.bucketStartSeconds = new long[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                bucketStartSeconds[i] = bucketStarts.get(i).toEpochSecond();
+            }
+            this.fromSeconds = query.getFrom().toEpochSecond();
+            this.toSeconds = query.getTo().toEpochSecond();
+            this.minutes = new long[bucketCount];
+            this.sessions = new int[bucketCount];
+            this.intervals = new long[bucketCount];
+        }
+
+        /**
+         * @return {@code true} if the entry fell inside the range and was counted
+         */
+        public boolean accept(SessionLogEntry entry) {
+            long seconds = entry.getTimestamp().atZone(query.getLogZone()).toEpochSecond();
+            if (seconds < fromSeconds || seconds >= toSeconds) {
+                return false;
+            }
+            int bucket = Arrays.binarySearch(bucketStartSeconds, seconds);
+            if (bucket < 0) {
+                bucket = -bucket - 2;
+            }
+            minutes[bucket] += entry.getFocusMinutes();
+            sessions[bucket]++;
+            intervals[bucket] += entry.getIntervalsCompleted();
+            return true;
+        }
+
+        public TimeSeries toTimeSeries() {
+            List<Bucket> buckets = new ArrayList<>(minutes.length);
+            for (int i = 0; i < minutes.length; i++) {
+                buckets.add(new Bucket(bucketStarts.get(i), bucketStarts.get(i + 1), minutes[i], sessions[i], intervals[i]));
+            }
+            return new TimeSeries(query, buckets);
+        }
+    }
+
+    public static class TimeSeries {
+        private final TimeRangeQuery query;
+        private final List<Bucket> buckets;
+
+        public TimeSeries(TimeRangeQuery query, List<Bucket> buckets) {
+            this.query = query;
+            this.buckets = Collections.unmodifiableList(new ArrayList<>(buckets));
+        }
+
+        public TimeRangeQuery getQuery() {
+            return query;
+        }
+
+        /**
+         * @return one bucket per period in the range, including empty periods, in time order
+         */
+        public List<Bucket> getBuckets() {
+            return buckets;
+        }
+
+        public long getTotalMinutes() {
+            long total = 0;
+            for (Bucket bucket : buckets) {
+                total += bucket.getTotalMinutes();
+            }
+            return total;
+        }
+
+        public int getSessionsCompleted() {
+            int total = 0;
+            for (Bucket bucket : buckets) {
+                total += bucket.getSessionsCompleted();
+            }
+            return total;
+        }
+    }
+
+    public static class Bucket {
+        private final ZonedDateTime start;
+        private final ZonedDateTime end;
+        private final long totalMinutes;
+        private final int sessionsCompleted;
+        private final long intervalsCompleted;
+
+        public Bucket(ZonedDateTime start, ZonedDateTime end, long totalMinutes, int sessionsCompleted, long intervalsCompleted) {
+            this.start = start;
+            this.end = end;
+            this.totalMinutes = totalMinutes;
+            this.sessionsCompleted = sessionsCompleted;
+            this.intervalsCompleted = intervalsCompleted;
+        }
+
+        public ZonedDateTime getStart() {
+            return start;
+        }
+
+        public ZonedDateTime getEnd() {
+            return end;
+        }
+
+        public long getTotalMinutes() {
+            return totalMinutes;
+        }
+
+        public int getSessionsCompleted() {
+            return sessionsCompleted;
+        }
+
+        public long getIntervalsCompleted() {
+            return intervalsCompleted;
+        }
+    }
+
     public static class WeeklyStatistics {
         private final long totalMinutes;
         private final int sessionsCompleted;
@@ -0,0 +1,129 @@
+package com.teoproject.pomodoro;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.WeekFields;
+import java.util.Objects;
+
+/**
+ * Describes a statistics query over the half-open interval {@code [from, to)}, split into buckets of
+ * a fixed granularity. Buckets are aligned in the zone of {@code from}; weeks start on the first day
+ * of the supplied {@link WeekFields}. Log timestamps carry no zone, so they are interpreted in
+ * {@code logZone}, which defaults to the zone of the machine that wrote the log.
+ */
+public class TimeRangeQuery {
+    public enum Granularity {
+        HOUR,
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    static final int MAX_BUCKETS = 1_000_000;
+
+    private final ZonedDateTime from;
+    private final ZonedDateTime to;
+    private final Granularity granularity;
+    private final WeekFields weekFields;
+    private final ZoneId logZone;
+
+    public TimeRangeQuery(ZonedDateTime from, ZonedDateTime to, Granularity granularity, WeekFields weekFields) {
+        this(from, to, granularity, weekFields, ZoneId.systemDefault());
+    }
+
+    public TimeRangeQuery(ZonedDateTime from, ZonedDateTime to, Granularity granularity, WeekFields weekFields, ZoneId logZone) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Range start must be before its end.");
+        }
+        this.from = from;
+        this.to = to.withZoneSameInstant(from.getZone());
+        this.granularity = Objects.requireNonNull(granularity, "granularity");
+        this.weekFields = Objects.requireNonNull(weekFields, "weekFields");
+        this.logZone = Objects.requireNonNull(logZone, "logZone");
+    }
+
+    /**
+     * Convenience factory for whole days: {@code [firstDay, lastDayExclusive)} at midnight in {@code zone}.
+     */
+    public static TimeRangeQuery ofDays(LocalDate firstDay, LocalDate lastDayExclusive, Granularity granularity,
+                                        WeekFields weekFields, ZoneId zone) {
+        return new TimeRangeQuery(firstDay.atStartOfDay(zone), lastDayExclusive.atStartOfDay(zone), granularity, weekFields);
+    }
+
+    public ZonedDateTime getFrom() {
+        return from;
+    }
+
+    public ZonedDateTime getTo() {
+        return to;
+    }
+
+    public ZoneId getZone() {
+        return from.getZone();
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public WeekFields getWeekFields() {
+        return weekFields;
+    }
+
+    public ZoneId getLogZone() {
+        return logZone;
+    }
+
+    /**
+     * @return the range start expressed in the log's local time, for locating rows in the log
+     */
+    LocalDateTime getLogFrom() {
+        return from.withZoneSameInstant(logZone).toLocalDateTime();
+    }
+
+    LocalDateTime getLogTo() {
+        return to.withZoneSameInstant(logZone).toLocalDateTime();
+    }
+
+    ZonedDateTime bucketStart(ZonedDateTime time) {
+        return switch (granularity) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.toLocalDate().atStartOfDay(time.getZone());
+            case WEEK -> time.toLocalDate().with(weekFields.dayOfWeek(), 1).atStartOfDay(time.getZone());
+            case MONTH -> time.toLocalDate().withDayOfMonth(1).atStartOfDay(time.getZone());
+        };
+    }
+
+    ZonedDateTime nextBucketStart(ZonedDateTime bucketStart) {
+        return switch (granularity) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.toLocalDate().plusDays(1).atStartOfDay(bucketStart.getZone());
+            case WEEK -> bucketStart.toLocalDate().plusWeeks(1).atStartOfDay(bucketStart.getZone());
+            case MONTH -> bucketStart.toLocalDate().plusMonths(1).atStartOfDay(bucketStart.getZone());
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TimeRangeQuery)) {
+            return false;
+        }
+        TimeRangeQuery query = (TimeRangeQuery) other;
+        return from.equals(query.from)
+                && to.equals(query.to)
+                && granularity == query.granularity
+                && weekFields.equals(query.weekFields)
+                && logZone.equals(query.logZone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to, granularity, weekFields, logZone);
+    }
+}
@@ -0,0 +1,34 @@
+package com.teoproject.pomodoro;
+
+/**
+ * Runs {@link PomodoroTimer}s and supplies the time they run on. {@link #REAL_TIME} gives each timer
+ * its own thread that ticks with the system clock; a {@link VirtualTimeScheduler} runs timers on
+ * simulated time. Code that starts timers takes a scheduler instead of creating threads itself, so
+ * it can run on either.
+ */
+public interface TimerScheduler {
+    /**
+     * Runs every timer on a new thread named {@code Pomodoro-Timer}, in real time.
+     */
+    TimerScheduler REAL_TIME = new TimerScheduler() {
+        @Override
+        public void start(PomodoroTimer timer) {
+            new Thread(timer, "Pomodoro-Timer").start();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * Starts the timer's session; its first tick is one second of this scheduler's time later.
+     */
+    void start(PomodoroTimer timer);
+
+    /**
+     * @return the current time in milliseconds on this scheduler's clock, e.g. for event timestamps
+     */
+    long currentTimeMillis();
+}
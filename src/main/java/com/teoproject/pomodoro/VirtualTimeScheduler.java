@@ -0,0 +1,183 @@
+package com.teoproject.pomodoro;
+
+import java.time.Duration;
+import java.util.PriorityQueue;
+
+/**
+ * Runs any number of {@link PomodoroTimer}s on simulated time. Nothing sleeps: the scheduler jumps
+ * straight to the next due tick or action, so a full 4&times;25-minute session takes microseconds
+ * and a whole day of a study hall takes seconds.
+ *
+ * <p>Everything happens on the thread that calls {@link #advanceBy(Duration)} or
+ * {@link #runUntilIdle()}. Events due at the same instant run in the order they were scheduled, so
+ * ticks and listener callbacks are fully deterministic from run to run. Scheduled actions may
+ * pause, resume or stop timers, start new ones, or schedule further actions. The scheduler is not
+ * thread-safe.
+ *
+ * <p>As with a timer on its own thread, pausing lets the second under way finish and count. A
+ * paused timer then leaves the queue until it is resumed or stopped, so it costs nothing while it
+ * waits and its idle seconds are not counted as ticks.
+ */
+public class VirtualTimeScheduler implements TimerScheduler {
+    private static final long TICK_MILLIS = 1000;
+
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+    private long nowMillis;
+    private long nextSequence;
+    private int activeTimers;
+    private long ticksRun;
+
+    /**
+     * @return simulated milliseconds since the scheduler was created
+     */
+    @Override
+    public long currentTimeMillis() {
+        return nowMillis;
+    }
+
+    /**
+     * Starts the timer at the current simulated time; its first tick is one second later.
+     */
+    @Override
+    public void start(PomodoroTimer timer) {
+        timer.start();
+        if (timer.isRunning()) {
+            activeTimers++;
+            Task task = new Task(nowMillis + TICK_MILLIS, nextSequence++, timer, null);
+            timer.addListener(new ResumeListener(task));
+            queue.add(task);
+        }
+    }
+
+    /**
+     * Starts the timer after {@code delay} of simulated time.
+     */
+    public void start(PomodoroTimer timer, Duration delay) {
+        schedule(delay, () -> start(timer));
+    }
+
+    /**
+     * Runs {@code action} after {@code delay} of simulated time, for example to pause a timer.
+     */
+    public void schedule(Duration delay, Runnable action) {
+        long delayMillis = delay.toMillis();
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Delay must not be negative.");
+        }
+        queue.add(new Task(nowMillis + delayMillis, nextSequence++, null, action));
+    }
+
+    /**
+     * Runs everything due within {@code duration} of simulated time and then sets the clock to the
+     * end of that period.
+     */
+    public void advanceBy(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must not be negative.");
+        }
+        long until = nowMillis + duration.toMillis();
+        while (!queue.isEmpty() && queue.peek().dueMillis <= until) {
+            runNext();
+        }
+        nowMillis = until;
+    }
+
+    /**
+     * Runs until no ticks or actions are left: every timer has finished or is paused with nothing
+     * scheduled to resume it.
+     *
+     * @return the simulated time at which the last event ran
+     */
+    public long runUntilIdle() {
+        while (!queue.isEmpty()) {
+            runNext();
+        }
+        return nowMillis;
+    }
+
+    private void runNext() {
+        Task task = queue.poll();
+        nowMillis = task.dueMillis;
+        if (task.action != null) {
+            task.action.run();
+            return;
+        }
+        ticksRun++;
+        if (!task.timer.tick()) {
+            activeTimers--;
+        } else if (task.timer.isPaused()) {
+            // Parked until the ResumeListener sees the timer resume or stop.
+            task.parked = true;
+        } else {
+            // The same task object is re-queued with a fresh sequence number so that timers
+            // keep a stable relative order within each second.
+            requeue(task, task.dueMillis + TICK_MILLIS);
+        }
+    }
+
+    private void requeue(Task task, long dueMillis) {
+        task.dueMillis = dueMillis;
+        task.sequence = nextSequence++;
+        queue.add(task);
+    }
+
+    /**
+     * @return timers started on this scheduler that have not finished yet
+     */
+    public int getActiveTimerCount() {
+        return activeTimers;
+    }
+
+    /**
+     * @return ticks delivered so far across all timers
+     */
+    public long getTicksRun() {
+        return ticksRun;
+    }
+
+    /**
+     * Puts a parked timer back in the queue once it is no longer paused: a resumed second is
+     * counted from the moment of resuming, and a stop is handled at once.
+     */
+    private final class ResumeListener implements PomodoroTimerListener {
+        private final Task task;
+
+        private ResumeListener(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public void onStatusUpdate(PomodoroTimer.TimerStatus status) {
+            if (task.parked && !status.isPaused()) {
+                task.parked = false;
+                requeue(task, task.timer.isStopRequested() ? nowMillis : nowMillis + TICK_MILLIS);
+            }
+        }
+
+        @Override
+        public void onSessionFinished(boolean completed) {
+            task.timer.removeListener(this);
+        }
+    }
+
+    private static final class Task implements Comparable<Task> {
+        private long dueMillis;
+        private long sequence;
+        private boolean parked;
+        private final PomodoroTimer timer;
+        private final Runnable action;
+
+        private Task(long dueMillis, long sequence, PomodoroTimer timer, Runnable action) {
+            this.dueMillis = dueMillis;
+            this.sequence = sequence;
+            this.timer = timer;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byTime = Long.compare(dueMillis, other.dueMillis);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
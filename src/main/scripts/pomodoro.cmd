@@ -0,0 +1,11 @@
+@echo off
+rem Launches the Pomodoro app with the class-data-sharing archive produced by "mvn -Pappcds package".
+rem The JVM falls back to a normal start if the archive is missing or was built by another JDK.
+set APP_DIR=%~dp0
+set JAR=%APP_DIR%${project.build.finalName}.jar
+set ARCHIVE=%APP_DIR%pomodoro-app.jsa
+
+set CDS_OPTS=-Xshare:auto
+if exist "%ARCHIVE%" set CDS_OPTS=%CDS_OPTS% -XX:SharedArchiveFile="%ARCHIVE%"
+
+start "" javaw %CDS_OPTS% -XX:TieredStopAtLevel=1 -XX:+UseSerialGC %JAVA_OPTS% -jar "%JAR%" %*
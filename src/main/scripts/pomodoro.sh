@@ -0,0 +1,14 @@
+#!/bin/sh
+# Launches the Pomodoro app with the class-data-sharing archive produced by `mvn -Pappcds package`.
+# The JVM falls back to a normal start if the archive is missing or was built by another JDK.
+APP_DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR="$APP_DIR/${project.build.finalName}.jar"
+ARCHIVE="$APP_DIR/pomodoro-app.jsa"
+
+# Paths are kept as separate quoted arguments so an install directory may contain spaces.
+set -- -jar "$JAR" "$@"
+if [ -f "$ARCHIVE" ]; then
+    set -- "-XX:SharedArchiveFile=$ARCHIVE" "$@"
+fi
+
+exec java -Xshare:auto -XX:TieredStopAtLevel=1 -XX:+UseSerialGC $JAVA_OPTS "$@"
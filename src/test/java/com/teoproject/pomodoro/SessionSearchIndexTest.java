@@ -0,0 +1,86 @@
+package com.teoproject.pomodoro;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SessionSearchIndexTest {
+    private static final int ROWS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendDuringCatchUpKeepsPagerRowNumbers() throws IOException {
+        Path log = directory.resolve("session_log.csv");
+        SessionLogger logger = new SessionLogger(log);
+        List<SessionLogEntry> entries = new ArrayList<>(ROWS);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < ROWS; i++) {
+            entries.add(new SessionLogEntry(start.plusMinutes(i), "reading " + i, 25, 1));
+        }
+        logger.appendEntries(entries);
+
+        SessionSearchIndex index = new SessionSearchIndex();
+        logger.addListener(index);
+        // Appends a session right after the first catch-up batch has been read from the pager.
+        SessionLogPager pager = new SessionLogPager(log) {
+            private boolean appended;
+
+            @Override
+            public SessionLogEntry[] readRows(int firstRow, int count) throws IOException {
+                SessionLogEntry[] rows = super.readRows(firstRow, count);
+                if (!appended) {
+                    appended = true;
+                    logger.appendEntry("interrupting append", 25, 1);
+                }
+                return rows;
+            }
+        };
+        pager.refresh();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            index.catchUp(pager);
+            return null;
+        });
+        assertEquals(ROWS + 1, index.size());
+        assertArrayEquals(new int[] {ROWS}, index.search("interrupting", null, null));
+        assertArrayEquals(new int[] {4096}, index.search("4096", null, null));
+
+        // Later appends continue from the caught-up rows, and the refreshed pager agrees.
+        logger.appendEntry("after catch-up", 25, 1);
+        assertArrayEquals(new int[] {ROWS + 1}, index.search("after", null, null));
+        pager.refresh();
+        index.catchUp(pager);
+        assertEquals(ROWS + 2, pager.getRowCount());
+        assertEquals(ROWS + 2, index.size());
+        assertEquals("interrupting append", pager.readRows(ROWS, 1)[0].getGoalDescription());
+    }
+
+    @Test
+    void appendsBeforeFirstCatchUpAreNotNumberedFromZero() throws IOException {
+        Path log = directory.resolve("session_log.csv");
+        SessionLogger logger = new SessionLogger(log);
+        for (int i = 0; i < 3; i++) {
+            logger.appendEntry("existing " + i, 25, 1);
+        }
+        SessionSearchIndex index = new SessionSearchIndex();
+        logger.addListener(index);
+        SessionLogPager pager = new SessionLogPager(log);
+        pager.refresh();
+        logger.appendEntry("early append", 25, 1);
+
+        index.catchUp(pager);
+        assertEquals(4, index.size());
+        assertArrayEquals(new int[] {3}, index.search("early", null, null));
+    }
+}